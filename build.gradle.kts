@@ -19,5 +19,24 @@ dependencies {
 }
 
 tasks.test {
-    useJUnitPlatform()
+    useJUnitPlatform {
+        excludeTags("stress")
+    }
+}
+
+// 大规模压测：./gradlew stressTest [-Dstress.shapes=... -Dstress.maxSize=...]
+tasks.register<Test>("stressTest") {
+    description = "Runs the large-scale assignment invariant and scaling suite."
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("stress")
+    }
+    maxHeapSize = "8g"
+    System.getProperties().stringPropertyNames()
+        .filter { it.startsWith("stress.") }
+        .forEach { systemProperty(it, System.getProperty(it)) }
+    systemProperty("stress.reportDir", layout.buildDirectory.dir("reports/stress").get().asFile.absolutePath)
+    shouldRunAfter(tasks.test)
 }
@@ -3,8 +3,14 @@ package cn.silence.icu.novautil.review;
 import cn.silence.icu.novautil.review.config.PoolConfigLoader;
 import cn.silence.icu.novautil.review.core.AssignmentExporter;
 import cn.silence.icu.novautil.review.core.AssignmentPrinter;
+import cn.silence.icu.novautil.review.core.AssignmentSnapshot;
 import cn.silence.icu.novautil.review.core.CodeReviewAssigner;
+import cn.silence.icu.novautil.review.core.ReviewLoadLedger;
+import cn.silence.icu.novautil.review.core.RosterAssignment;
+import cn.silence.icu.novautil.review.model.OffHeapRoster;
 import cn.silence.icu.novautil.review.model.Person;
+import cn.silence.icu.novautil.review.model.ReviewConstraints;
+import cn.silence.icu.novautil.review.server.AssignmentServer;
 
 import java.io.File;
 import java.io.IOException;
@@ -23,38 +29,122 @@ public class CodeReviewAssignUtils {
 
     public static void assignSinglePoolPrint() throws IOException {
         List<Person> singlePool = PoolConfigLoader.loadSinglePool("config/single_pool.json");
-        Map<Person, List<Person>> singleAssign = CodeReviewAssigner.assignSinglePool(singlePool);
+        ReviewConstraints constraints = PoolConfigLoader.loadConstraints("config/single_pool.json");
+        Map<Person, List<Person>> singleAssign = CodeReviewAssigner.assignSinglePool(singlePool, constraints);
         AssignmentPrinter.printAssignments(singleAssign);
     }
 
     public static void assignSinglePoolCsv() throws IOException {
         List<Person> singlePool = PoolConfigLoader.loadSinglePool("config/single_pool.json");
-        Map<Person, List<Person>> singleAssign = CodeReviewAssigner.assignSinglePool(singlePool);
+        ReviewConstraints constraints = PoolConfigLoader.loadConstraints("config/single_pool.json");
+        Map<Person, List<Person>> singleAssign = CodeReviewAssigner.assignSinglePool(singlePool, constraints);
         AssignmentExporter.exportToCsv(singleAssign, System.getProperty("user.dir") + File.separator + ".uncommit/docs/");
     }
 
     public static void assignSinglePoolMarkdown() throws IOException {
         List<Person> singlePool = PoolConfigLoader.loadSinglePool("config/single_pool.json");
-        Map<Person, List<Person>> singleAssign = CodeReviewAssigner.assignSinglePool(singlePool);
+        ReviewConstraints constraints = PoolConfigLoader.loadConstraints("config/single_pool.json");
+        Map<Person, List<Person>> singleAssign = CodeReviewAssigner.assignSinglePool(singlePool, constraints);
         AssignmentExporter.exportToMarkdown(singleAssign, System.getProperty("user.dir") + File.separator + ".uncommit/docs/");
     }
 
+    public static void assignSinglePoolConstrainedPrint() throws IOException {
+        List<Person> singlePool = PoolConfigLoader.loadSinglePool("config/single_pool.json");
+        ReviewConstraints constraints = PoolConfigLoader.loadConstraints("config/single_pool.json");
+        Map<Person, List<Person>> singleAssign = CodeReviewAssigner.assignSinglePool(singlePool, constraints);
+        AssignmentPrinter.printAssignments(singleAssign);
+    }
+
+    public static void assignSinglePoolSnapshot() throws IOException {
+        List<Person> singlePool = PoolConfigLoader.loadSinglePool("config/single_pool.json");
+        ReviewConstraints constraints = PoolConfigLoader.loadConstraints("config/single_pool.json");
+        Map<Person, List<Person>> singleAssign = CodeReviewAssigner.assignSinglePool(singlePool, constraints);
+        String snapshotPath = AssignmentSnapshot.write(singleAssign, System.getProperty("user.dir") + File.separator + ".uncommit/snapshots/");
+        AssignmentPrinter.printAssignments(AssignmentSnapshot.open(snapshotPath).toAssignment());
+    }
+
+    public static void assignSinglePoolOffHeapCsv() throws IOException {
+        OffHeapRoster singlePool = PoolConfigLoader.loadSinglePoolOffHeap("config/single_pool.json");
+        ReviewConstraints constraints = PoolConfigLoader.loadConstraints("config/single_pool.json");
+        RosterAssignment singleAssign = CodeReviewAssigner.assignSinglePool(singlePool, constraints);
+        AssignmentPrinter.printAssignments(singleAssign);
+        AssignmentExporter.exportToCsv(singleAssign, System.getProperty("user.dir") + File.separator + ".uncommit/docs/");
+    }
+
     public static void assignDualPoolPrint() throws IOException {
         Map<String, List<Person>> dualPool = PoolConfigLoader.loadDualPool("config/dual_pool.json");
-        Map<Person, List<Person>> dualAssign = CodeReviewAssigner.assignDualPool(dualPool.get("poolA"), dualPool.get("poolB"));
+        ReviewConstraints constraints = PoolConfigLoader.loadConstraints("config/dual_pool.json");
+        Map<Person, List<Person>> dualAssign = CodeReviewAssigner.assignDualPool(dualPool.get("poolA"), dualPool.get("poolB"), constraints);
         AssignmentPrinter.printAssignments(dualAssign);
     }
 
     public static void assignDualPoolCsv() throws IOException {
         Map<String, List<Person>> dualPool = PoolConfigLoader.loadDualPool("config/dual_pool.json");
-        Map<Person, List<Person>> dualAssign = CodeReviewAssigner.assignDualPool(dualPool.get("poolA"), dualPool.get("poolB"));
+        ReviewConstraints constraints = PoolConfigLoader.loadConstraints("config/dual_pool.json");
+        Map<Person, List<Person>> dualAssign = CodeReviewAssigner.assignDualPool(dualPool.get("poolA"), dualPool.get("poolB"), constraints);
         AssignmentExporter.exportToCsv(dualAssign, System.getProperty("user.dir") + File.separator + ".uncommit/docs/");
 
     }
 
+    /**
+     * 以固定种子重新分配双池，并与上一次结果（CSV 或 .nras 快照）比对导出差异及补丁全量 CSV
+     *
+     * @return 差异行数（新增 + 删除 + 变更）
+     */
+    public static int assignDualPoolCsvDiff(String previousPath, long seed) throws IOException {
+        Map<String, List<Person>> dualPool = PoolConfigLoader.loadDualPool("config/dual_pool.json");
+        ReviewConstraints constraints = PoolConfigLoader.loadConstraints("config/dual_pool.json");
+        Map<Person, List<Person>> dualAssign = CodeReviewAssigner.assignDualPool(dualPool.get("poolA"), dualPool.get("poolB"), constraints, seed);
+        return AssignmentExporter.exportCsvDiff(dualAssign, previousPath, System.getProperty("user.dir") + File.separator + ".uncommit/docs/", true);
+    }
+
     public static void assignDualPoolMarkdown() throws IOException {
         Map<String, List<Person>> dualPool = PoolConfigLoader.loadDualPool("config/dual_pool.json");
-        Map<Person, List<Person>> dualAssign = CodeReviewAssigner.assignDualPool(dualPool.get("poolA"), dualPool.get("poolB"));
+        ReviewConstraints constraints = PoolConfigLoader.loadConstraints("config/dual_pool.json");
+        Map<Person, List<Person>> dualAssign = CodeReviewAssigner.assignDualPool(dualPool.get("poolA"), dualPool.get("poolB"), constraints);
         AssignmentExporter.exportToMarkdown(dualAssign, System.getProperty("user.dir") + File.separator + ".uncommit/docs/");
     }
+
+    public static void assignDualPoolConstrainedPrint() throws IOException {
+        Map<String, List<Person>> dualPool = PoolConfigLoader.loadDualPool("config/dual_pool.json");
+        ReviewConstraints constraints = PoolConfigLoader.loadConstraints("config/dual_pool.json");
+        Map<Person, List<Person>> dualAssign = CodeReviewAssigner.assignDualPool(dualPool.get("poolA"), dualPool.get("poolB"), constraints);
+        AssignmentPrinter.printAssignments(dualAssign);
+    }
+
+    public static void assignDualPoolFairPrint() throws IOException {
+        Map<String, List<Person>> dualPool = PoolConfigLoader.loadDualPool("config/dual_pool.json");
+        String ledgerPath = System.getProperty("user.dir") + File.separator + ".uncommit/ledger/review_load.nrll";
+        ReviewLoadLedger ledger = ReviewLoadLedger.load(ledgerPath);
+        ReviewConstraints constraints = PoolConfigLoader.loadConstraints("config/dual_pool.json");
+        Map<Person, List<Person>> dualAssign = CodeReviewAssigner.assignDualPoolFair(dualPool.get("poolA"), dualPool.get("poolB"), ledger, constraints);
+        ledger.save(ledgerPath);
+        AssignmentPrinter.printAssignments(dualAssign);
+        System.out.println("✅ 审查负载台账已更新: " + ledger);
+    }
+
+    public static void assignDualPoolOffHeapMarkdown() throws IOException {
+        Map<String, OffHeapRoster> dualPool = PoolConfigLoader.loadDualPoolOffHeap("config/dual_pool.json");
+        ReviewConstraints constraints = PoolConfigLoader.loadConstraints("config/dual_pool.json");
+        RosterAssignment dualAssign = CodeReviewAssigner.assignDualPool(dualPool.get("poolA"), dualPool.get("poolB"), constraints);
+        AssignmentPrinter.printAssignments(dualAssign);
+        AssignmentExporter.exportToMarkdown(dualAssign, System.getProperty("user.dir") + File.separator + ".uncommit/docs/");
+    }
+
+    public static void assignDualPoolSnapshot() throws IOException {
+        Map<String, List<Person>> dualPool = PoolConfigLoader.loadDualPool("config/dual_pool.json");
+        ReviewConstraints constraints = PoolConfigLoader.loadConstraints("config/dual_pool.json");
+        Map<Person, List<Person>> dualAssign = CodeReviewAssigner.assignDualPool(dualPool.get("poolA"), dualPool.get("poolB"), constraints);
+        String snapshotPath = AssignmentSnapshot.write(dualAssign, System.getProperty("user.dir") + File.separator + ".uncommit/snapshots/");
+        AssignmentPrinter.printAssignments(AssignmentSnapshot.open(snapshotPath).toAssignment());
+    }
+
+    /**
+     * 以本地服务模式常驻（单池/双池配置均加载），由调用方负责 stop
+     */
+    public static AssignmentServer startServer(int port) throws IOException {
+        AssignmentServer server = new AssignmentServer("config/single_pool.json", "config/dual_pool.json");
+        server.start(port);
+        return server;
+    }
 }
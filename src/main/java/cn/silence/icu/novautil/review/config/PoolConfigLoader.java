@@ -1,6 +1,10 @@
 package cn.silence.icu.novautil.review.config;
 
+import cn.silence.icu.novautil.review.model.OffHeapRoster;
 import cn.silence.icu.novautil.review.model.Person;
+import cn.silence.icu.novautil.review.model.ReviewConstraints;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -40,4 +44,94 @@ public class PoolConfigLoader {
                 MAPPER.getTypeFactory().constructCollectionType(List.class, Person.class)));
         return pools;
     }
+
+    // 单池配置（堆外名册：流式解析，不构建 JsonNode / Person）
+    public static OffHeapRoster loadSinglePoolOffHeap(String filePath) throws IOException {
+        try (JsonParser parser = MAPPER.getFactory().createParser(new File(filePath))) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    if ("people".equals(field)) {
+                        return readRoster(parser, filePath);
+                    }
+                    parser.skipChildren();
+                }
+            }
+        }
+        throw new IOException("配置缺少 people 节点: " + filePath);
+    }
+
+    // 双池配置（堆外名册）
+    public static Map<String, OffHeapRoster> loadDualPoolOffHeap(String filePath) throws IOException {
+        Map<String, OffHeapRoster> pools = new HashMap<>();
+        try (JsonParser parser = MAPPER.getFactory().createParser(new File(filePath))) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String pool = parser.currentName();
+                    parser.nextToken();
+                    if (!"poolA".equals(pool) && !"poolB".equals(pool)) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String field = parser.currentName();
+                        parser.nextToken();
+                        if ("people".equals(field)) {
+                            pools.put(pool, readRoster(parser, filePath));
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                }
+            }
+        }
+        if (!pools.containsKey("poolA") || !pools.containsKey("poolB")) {
+            throw new IOException("配置缺少 poolA/poolB 的 people 节点: " + filePath);
+        }
+        return pools;
+    }
+
+    private static OffHeapRoster readRoster(JsonParser parser, String filePath) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new IOException("people 节点必须为数组: " + filePath);
+        }
+        OffHeapRoster roster = new OffHeapRoster();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String name = null;
+            String employeeId = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("name".equals(field)) {
+                    name = parser.getValueAsString();
+                } else if ("employeeId".equals(field)) {
+                    employeeId = parser.getValueAsString();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            roster.append(name, employeeId);
+        }
+        return roster;
+    }
+
+    // 约束配置（与 people 同级的 constraints 节点，缺省为无约束；流式跳过 people，大名册也不构建 JsonNode）
+    public static ReviewConstraints loadConstraints(String filePath) throws IOException {
+        try (JsonParser parser = MAPPER.getFactory().createParser(new File(filePath))) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    if ("constraints".equals(field)) {
+                        return value == JsonToken.VALUE_NULL
+                                ? ReviewConstraints.none()
+                                : MAPPER.readValue(parser, ReviewConstraints.class);
+                    }
+                    parser.skipChildren();
+                }
+            }
+        }
+        return ReviewConstraints.none();
+    }
 }
@@ -3,10 +3,12 @@ package cn.silence.icu.novautil.review.core;
 import cn.silence.icu.novautil.review.model.Person;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.IntBinaryOperator;
 import java.util.stream.Collectors;
 
 /**
@@ -18,7 +20,7 @@ import java.util.stream.Collectors;
 public final class AssignmentExporter {
 
     // 时间戳格式：文件名用紧凑格式，内容用详细格式
-    private static final DateTimeFormatter FILENAME_TIMESTAMP_FORMATTER =
+    static final DateTimeFormatter FILENAME_TIMESTAMP_FORMATTER =
             DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
     private static final DateTimeFormatter CONTENT_TIMESTAMP_FORMATTER =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
@@ -27,6 +29,10 @@ public final class AssignmentExporter {
     private static final String CSV_PREFIX = "code_review_assignments";
     private static final String MD_PREFIX = "review_summary";
 
+    // CSV 表头（差异文件在首列追加变更类型，末列追加原被审查人工号）
+    private static final String CSV_HEADER = "审查人姓名,审查人工号,被审查人姓名,被审查人工号,审查人数,分配时间";
+    private static final String DIFF_HEADER = "变更类型," + CSV_HEADER + ",原被审查人工号";
+
     private AssignmentExporter() {
         // 工具类禁止实例化
     }
@@ -34,15 +40,16 @@ public final class AssignmentExporter {
     // ==================== CSV 导出（自动时间戳） ====================
 
     /**
-     * 导出分配结果为 CSV 文件（自动在文件名添加时间戳）
+     * 导出分配结果为 CSV 文件（自动在文件名添加时间戳；数据行按审查人工号升序，可直接作为增量比对基准流式读取）
      *
      * @param assignment 分配结果 Map<审查人, 被审查人列表>
      * @param basePath   基础路径（支持两种用法）：
      *                   - 目录路径：如 "exports/" → 生成 exports/code_review_assignments_20260207_174522.csv
      *                   - 文件路径：如 "review.csv" → 生成 review_20260207_174522.csv
+     * @return 实际写入的文件路径
      * @throws IOException 文件写入异常
      */
-    public static void exportToCsv(Map<Person, List<Person>> assignment, String basePath) throws IOException {
+    public static String exportToCsv(Map<Person, List<Person>> assignment, String basePath) throws IOException {
         validateAssignment(assignment, "CSV");
 
         // 生成带时间戳的完整文件路径
@@ -51,42 +58,46 @@ public final class AssignmentExporter {
 
         createParentDir(finalPath);
 
-        try (BufferedWriter writer = new BufferedWriter(
-                new OutputStreamWriter(new FileOutputStream(finalPath), StandardCharsets.UTF_8))) {
-
-            // BOM 头（确保 Excel 正确识别 UTF-8）
-            writer.write("\ufeff");
-
-            // 表头
-            writer.write("审查人姓名,审查人工号,被审查人姓名,被审查人工号,审查人数,分配时间");
-            writer.newLine();
-
-            // 数据行（内容使用详细时间戳）
-            String contentTime = LocalDateTime.now().format(CONTENT_TIMESTAMP_FORMATTER);
-            for (Map.Entry<Person, List<Person>> entry : assignment.entrySet()) {
-                Person reviewer = entry.getKey();
-                List<Person> reviewees = entry.getValue();
-
-                String revieweeNames = String.join(";",
-                        reviewees.stream().map(Person::getName).toArray(String[]::new));
-                String revieweeIds = String.join(";",
-                        reviewees.stream().map(Person::getEmployeeId).toArray(String[]::new));
-
-                String[] row = {
-                        escapeCsv(reviewer.getName()),
-                        escapeCsv(reviewer.getEmployeeId()),
-                        escapeCsv(revieweeNames),
-                        escapeCsv(revieweeIds),
-                        String.valueOf(reviewees.size()),
-                        contentTime
-                };
-                writer.write(String.join(",", row));
-                writer.newLine();
-            }
+        try (OutputStream out = new FileOutputStream(finalPath)) {
+            writeCsv(assignment, out);
+        }
+        System.out.printf("✅ CSV 导出成功: %s (共 %d 条记录)%n",
+                finalPath, assignment.size());
+        return finalPath;
+    }
+
+    /**
+     * 将分配结果以 CSV 格式写入输出流（格式同 {@link #exportToCsv(Map, String)}，不关闭输出流）
+     *
+     * @param assignment 分配结果 Map<审查人, 被审查人列表>
+     * @param out        目标输出流（如 HTTP 响应体）
+     * @throws IOException 写入异常
+     */
+    public static void writeCsv(Map<Person, List<Person>> assignment, OutputStream out) throws IOException {
+        writeCsv(assignment, out, LocalDateTime.now().format(CONTENT_TIMESTAMP_FORMATTER));
+    }
+
+    /**
+     * 以指定内容时间写出 CSV（便于与堆外名册导出逐字节比对）
+     */
+    static void writeCsv(Map<Person, List<Person>> assignment, OutputStream out, String contentTime)
+            throws IOException {
+        validateAssignment(assignment, "CSV");
 
-            System.out.printf("✅ CSV 导出成功: %s (共 %d 条记录)%n",
-                    finalPath, assignment.size());
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        // BOM 头（确保 Excel 正确识别 UTF-8）
+        writer.write("\ufeff");
+
+        // 表头
+        writer.write(CSV_HEADER);
+        writer.newLine();
+
+        // 数据行（按审查人工号升序，内容使用详细时间戳）
+        for (Map.Entry<Person, List<Person>> entry : sortedByReviewerId(assignment)) {
+            writeCsvRow(writer, csvFields(entry.getKey(), entry.getValue(), contentTime));
         }
+        writer.flush();
     }
 
     // ==================== Markdown 导出（自动时间戳） ====================
@@ -109,81 +120,637 @@ public final class AssignmentExporter {
 
         createParentDir(finalPath);
 
-        try (BufferedWriter writer = new BufferedWriter(
-                new OutputStreamWriter(new FileOutputStream(finalPath), StandardCharsets.UTF_8))) {
+        int covered;
+        try (OutputStream out = new FileOutputStream(finalPath)) {
+            covered = writeMarkdown(assignment, out);
+        }
+        System.out.printf("✅ Markdown 导出成功: %s (覆盖 %d 人)%n",
+                finalPath, covered);
+    }
+
+    /**
+     * 将分配结果以 Markdown 报告写入输出流（版式同 {@link #exportToMarkdown(Map, String)}，不关闭输出流）
+     *
+     * @param assignment 分配结果 Map<审查人, 被审查人列表>
+     * @param out        目标输出流（如 HTTP 响应体）
+     * @return 被审查覆盖人数
+     * @throws IOException 写入异常
+     */
+    public static int writeMarkdown(Map<Person, List<Person>> assignment, OutputStream out) throws IOException {
+        return writeMarkdown(assignment, out, LocalDateTime.now().format(CONTENT_TIMESTAMP_FORMATTER));
+    }
 
-            // ===== 标题与元信息（内容使用详细时间戳）=====
-            String contentTime = LocalDateTime.now().format(CONTENT_TIMESTAMP_FORMATTER);
-            writer.write("# 📋 代码审查分配清单\n\n");
-            writer.write("> **生成时间**: " + contentTime + "  \n");
-            writer.write("> **分配模式**: 双池交叉审查  \n");
+    /**
+     * 以指定内容时间写出 Markdown 报告（便于与堆外名册导出逐字节比对）
+     */
+    static int writeMarkdown(Map<Person, List<Person>> assignment, OutputStream out, String contentTime)
+            throws IOException {
+        validateAssignment(assignment, "Markdown");
 
-            // ===== 统计摘要 =====
-            int totalReviewers = assignment.size();
-            int totalTasks = assignment.values().stream().mapToInt(List::size).sum();
-            Set<String> uniqueRevieweeIds = assignment.values().stream()
-                    .flatMap(List::stream)
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        // ===== 统计摘要 =====
+        int totalReviewers = assignment.size();
+        int totalTasks = assignment.values().stream().mapToInt(List::size).sum();
+        Set<String> uniqueRevieweeIds = assignment.values().stream()
+                .flatMap(List::stream)
+                .map(Person::getEmployeeId)
+                .collect(Collectors.toSet());
+        writeMarkdownHeader(writer, contentTime, totalReviewers, uniqueRevieweeIds.size(), totalTasks);
+
+        // 按审查人工号排序（码点序，与堆外名册按 UTF-8 字节排序一致）
+        for (Map.Entry<Person, List<Person>> entry : sortedByReviewerId(assignment)) {
+            Person reviewer = entry.getKey();
+            List<Person> reviewees = entry.getValue();
+
+            String revieweeNames = reviewees.stream()
+                    .map(p -> escapeMarkdown(p.getName()))
+                    .collect(Collectors.joining(", "));
+            String revieweeIds = reviewees.stream()
                     .map(Person::getEmployeeId)
-                    .collect(Collectors.toSet());
-
-            writer.write("\n## 📊 分配统计\n");
-            writer.write("| 项目 | 数值 |\n");
-            writer.write("|------|------|\n");
-            writer.write(String.format("| 参与审查人数 | **%d** 人 |\n", totalReviewers));
-            writer.write(String.format("| 被审查覆盖人数 | **%d** 人 |\n", uniqueRevieweeIds.size()));
-            writer.write(String.format("| 审查任务总数 | **%d** 项 |\n", totalTasks));
-            writer.write(String.format("| 人均审查量 | **%.1f** 人/人 |\n",
-                    (double) totalTasks / totalReviewers));
-            writer.write("\n> 💡 **分配原则**: 被审查人100%覆盖 | 审查人按需抽样 | 任务量均衡（差≤1）\n\n");
-
-            // ===== 详细分配表 =====
-            writer.write("## 👥 详细分配明细\n");
-            writer.write("| 审查人 | 工号 | 被审查人 | 被审查人工号 | 人数 |\n");
-            writer.write("|:-------|:-----|:----------|:--------------|-----:|\n");
-
-            // 按审查人工号排序（便于查阅）
-            assignment.entrySet().stream()
-                    .sorted(Comparator.comparing(e -> e.getKey().getEmployeeId()))
-                    .forEach(entry -> {
-                        Person reviewer = entry.getKey();
-                        List<Person> reviewees = entry.getValue();
-
-                        String revieweeNames = reviewees.stream()
-                                .map(p -> escapeMarkdown(p.getName()))
-                                .collect(Collectors.joining(", "));
-                        String revieweeIds = reviewees.stream()
-                                .map(Person::getEmployeeId)
-                                .collect(Collectors.joining(", "));
-
-                        try {
-                            writer.write(String.format(
-                                    "| %s | `%s` | %s | `%s` | %d |\n",
-                                    escapeMarkdown(reviewer.getName()),
-                                    reviewer.getEmployeeId(),
-                                    revieweeNames.isEmpty() ? "—" : revieweeNames,
-                                    revieweeIds.isEmpty() ? "—" : revieweeIds,
-                                    reviewees.size()
-                            ));
-                        } catch (IOException e) {
-                            throw new UncheckedIOException(e);
-                        }
-                    });
-
-            // ===== 使用说明 =====
-            writer.write("\n## ℹ️ 使用说明\n");
-            writer.write("- **审查人**：需在规定时间内完成所列人员的代码审查\n");
-            writer.write("- **被审查人**：请提前准备好待审查代码并通知审查人\n");
-            writer.write("- **任务量**：系统已自动均衡分配（最大差值≤1人）\n");
-            writer.write("- **问题反馈**：分配异常请联系技术负责人\n\n");
-
-            // ===== 页脚 =====
-            writer.write("---\n");
-            writer.write("**NovaUtil 代码审查分配系统** | v1.0.0  \n");
-            writer.write("© 2026 团队名称 | 本清单自动生成，文件名含时间戳避免覆盖");
-
-            System.out.printf("✅ Markdown 导出成功: %s (覆盖 %d 人)%n",
-                    finalPath, uniqueRevieweeIds.size());
+                    .collect(Collectors.joining(", "));
+
+            writer.write(String.format(
+                    "| %s | `%s` | %s | `%s` | %d |\n",
+                    escapeMarkdown(reviewer.getName()),
+                    reviewer.getEmployeeId(),
+                    revieweeNames.isEmpty() ? "—" : revieweeNames,
+                    revieweeIds.isEmpty() ? "—" : revieweeIds,
+                    reviewees.size()
+            ));
+        }
+
+        writeMarkdownFooter(writer);
+        writer.flush();
+        return uniqueRevieweeIds.size();
+    }
+
+    /**
+     * 标题、元信息、统计摘要与明细表头（内容使用详细时间戳）
+     */
+    private static void writeMarkdownHeader(BufferedWriter writer, String contentTime, int totalReviewers,
+                                            int coveredReviewees, int totalTasks) throws IOException {
+        // ===== 标题与元信息 =====
+        writer.write("# 📋 代码审查分配清单\n\n");
+        writer.write("> **生成时间**: " + contentTime + "  \n");
+        writer.write("> **分配模式**: 双池交叉审查  \n");
+
+        // ===== 统计摘要 =====
+        writer.write("\n## 📊 分配统计\n");
+        writer.write("| 项目 | 数值 |\n");
+        writer.write("|------|------|\n");
+        writer.write(String.format("| 参与审查人数 | **%d** 人 |\n", totalReviewers));
+        writer.write(String.format("| 被审查覆盖人数 | **%d** 人 |\n", coveredReviewees));
+        writer.write(String.format("| 审查任务总数 | **%d** 项 |\n", totalTasks));
+        writer.write(String.format("| 人均审查量 | **%.1f** 人/人 |\n",
+                (double) totalTasks / totalReviewers));
+        writer.write("\n> 💡 **分配原则**: 被审查人100%覆盖 | 审查人按需抽样 | 任务量均衡（差≤1）\n\n");
+
+        // ===== 详细分配表 =====
+        writer.write("## 👥 详细分配明细\n");
+        writer.write("| 审查人 | 工号 | 被审查人 | 被审查人工号 | 人数 |\n");
+        writer.write("|:-------|:-----|:----------|:--------------|-----:|\n");
+    }
+
+    /**
+     * 使用说明与页脚
+     */
+    private static void writeMarkdownFooter(BufferedWriter writer) throws IOException {
+        // ===== 使用说明 =====
+        writer.write("\n## ℹ️ 使用说明\n");
+        writer.write("- **审查人**：需在规定时间内完成所列人员的代码审查\n");
+        writer.write("- **被审查人**：请提前准备好待审查代码并通知审查人\n");
+        writer.write("- **任务量**：系统已自动均衡分配（最大差值≤1人）\n");
+        writer.write("- **问题反馈**：分配异常请联系技术负责人\n\n");
+
+        // ===== 页脚 =====
+        writer.write("---\n");
+        writer.write("**NovaUtil 代码审查分配系统** | v1.0.0  \n");
+        writer.write("© 2026 团队名称 | 本清单自动生成，文件名含时间戳避免覆盖");
+    }
+
+    // ==================== 堆外名册导出 ====================
+
+    /**
+     * 导出堆外名册分配结果为 CSV（格式同 {@link #exportToCsv(Map, String)}，同样按审查人工号升序）
+     * 姓名/工号直接从堆外内存按 UTF-8 字节写出，不创建 Person/String
+     *
+     * @param assignment 堆外名册分配结果
+     * @param basePath   基础路径（规则同 {@link #exportToCsv(Map, String)}）
+     * @throws IOException 文件写入异常
+     */
+    public static void exportToCsv(RosterAssignment assignment, String basePath) throws IOException {
+        validateAssignment(assignment, "CSV");
+
+        String timestamp = LocalDateTime.now().format(FILENAME_TIMESTAMP_FORMATTER);
+        String finalPath = generateTimestampedPath(basePath, timestamp, "csv", CSV_PREFIX);
+
+        createParentDir(finalPath);
+
+        try (OutputStream out = new FileOutputStream(finalPath)) {
+            writeCsv(assignment, out, LocalDateTime.now().format(CONTENT_TIMESTAMP_FORMATTER));
+        }
+        System.out.printf("✅ CSV 导出成功: %s (共 %d 条记录)%n",
+                finalPath, assignment.getReviewerCount());
+    }
+
+    /**
+     * 以指定内容时间写出堆外名册 CSV（与 Map 版 {@link #writeCsv(Map, OutputStream, String)} 逐字节一致，不关闭输出流）
+     */
+    static void writeCsv(RosterAssignment assignment, OutputStream target, String contentTime) throws IOException {
+        validateAssignment(assignment, "CSV");
+
+        byte[] lineSeparator = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+        OutputStream out = new BufferedOutputStream(target, 1 << 16);
+        out.write("\ufeff".getBytes(StandardCharsets.UTF_8));
+        out.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        out.write(lineSeparator);
+
+        byte[] timeField = contentTime.getBytes(StandardCharsets.UTF_8);
+        byte[] scratch = new byte[256];
+        int[] rows = new int[assignment.getReviewerCount()];
+        for (int i = 0; i < rows.length; i++) rows[i] = i;
+        sortRows(rows, (a, b) -> assignment.compareEmployeeId(assignment.reviewerAt(a), assignment.reviewerAt(b)));
+        for (int row : rows) {
+            int reviewer = assignment.reviewerAt(row);
+            int count = assignment.revieweeCount(row);
+            ByteBuffer[] names = new ByteBuffer[count];
+            ByteBuffer[] ids = new ByteBuffer[count];
+            for (int k = 0; k < count; k++) {
+                names[k] = assignment.nameBytesOf(assignment.revieweeAt(row, k));
+                ids[k] = assignment.employeeIdBytesOf(assignment.revieweeAt(row, k));
+            }
+            scratch = writeCsvBytes(out, scratch, assignment.nameBytesOf(reviewer));
+            out.write(',');
+            scratch = writeCsvBytes(out, scratch, assignment.employeeIdBytesOf(reviewer));
+            out.write(',');
+            scratch = writeCsvBytes(out, scratch, names);
+            out.write(',');
+            scratch = writeCsvBytes(out, scratch, ids);
+            out.write(',');
+            out.write(Integer.toString(count).getBytes(StandardCharsets.US_ASCII));
+            out.write(',');
+            out.write(timeField);
+            out.write(lineSeparator);
+        }
+        out.flush();
+    }
+
+    /**
+     * 导出堆外名册分配结果为 Markdown（版式同 {@link #exportToMarkdown(Map, String)}，逐行按需解码）
+     *
+     * @param assignment 堆外名册分配结果
+     * @param basePath   基础路径（规则同 {@link #exportToMarkdown(Map, String)}）
+     * @throws IOException 文件写入异常
+     */
+    public static void exportToMarkdown(RosterAssignment assignment, String basePath) throws IOException {
+        validateAssignment(assignment, "Markdown");
+
+        String timestamp = LocalDateTime.now().format(FILENAME_TIMESTAMP_FORMATTER);
+        String finalPath = generateTimestampedPath(basePath, timestamp, "md", MD_PREFIX);
+
+        createParentDir(finalPath);
+
+        int covered;
+        try (OutputStream out = new FileOutputStream(finalPath)) {
+            covered = writeMarkdown(assignment, out, LocalDateTime.now().format(CONTENT_TIMESTAMP_FORMATTER));
+        }
+        System.out.printf("✅ Markdown 导出成功: %s (覆盖 %d 人)%n",
+                finalPath, covered);
+    }
+
+    /**
+     * 以指定内容时间写出堆外名册 Markdown（与 Map 版 {@link #writeMarkdown(Map, OutputStream, String)} 逐字节一致，不关闭输出流）
+     *
+     * @return 被审查覆盖人数
+     */
+    static int writeMarkdown(RosterAssignment assignment, OutputStream out, String contentTime) throws IOException {
+        validateAssignment(assignment, "Markdown");
+
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        // 被审查人去重计数（下标位图）
+        BitSet covered = new BitSet();
+        for (int row = 0; row < assignment.getReviewerCount(); row++) {
+            for (int k = 0; k < assignment.revieweeCount(row); k++) {
+                covered.set(assignment.revieweeAt(row, k));
+            }
+        }
+        writeMarkdownHeader(writer, contentTime, assignment.getReviewerCount(), covered.cardinality(),
+                assignment.getTaskCount());
+
+        // 按审查人工号排序（便于查阅）
+        int[] rows = new int[assignment.getReviewerCount()];
+        for (int i = 0; i < rows.length; i++) rows[i] = i;
+        sortRows(rows, (a, b) -> assignment.compareEmployeeId(assignment.reviewerAt(a), assignment.reviewerAt(b)));
+
+        StringBuilder names = new StringBuilder();
+        StringBuilder ids = new StringBuilder();
+        for (int row : rows) {
+            names.setLength(0);
+            ids.setLength(0);
+            for (int k = 0; k < assignment.revieweeCount(row); k++) {
+                int reviewee = assignment.revieweeAt(row, k);
+                if (k > 0) {
+                    names.append(", ");
+                    ids.append(", ");
+                }
+                names.append(escapeMarkdown(assignment.nameOf(reviewee)));
+                ids.append(assignment.employeeIdOf(reviewee));
+            }
+            int reviewer = assignment.reviewerAt(row);
+            writer.write(String.format(
+                    "| %s | `%s` | %s | `%s` | %d |\n",
+                    escapeMarkdown(assignment.nameOf(reviewer)),
+                    assignment.employeeIdOf(reviewer),
+                    names.length() == 0 ? "—" : names,
+                    ids.length() == 0 ? "—" : ids,
+                    assignment.revieweeCount(row)
+            ));
+        }
+
+        writeMarkdownFooter(writer);
+        writer.flush();
+        return covered.cardinality();
+    }
+
+    /**
+     * 写出 CSV 字段字节（多段以 ';' 拼接；含逗号/换行/引号时整体加引号并转义）
+     *
+     * @return 可复用的拷贝缓冲（容量不足时扩容后返回）
+     */
+    private static byte[] writeCsvBytes(OutputStream out, byte[] scratch, ByteBuffer... parts) throws IOException {
+        boolean quoted = false;
+        for (ByteBuffer part : parts) {
+            for (int i = part.position(); i < part.limit() && !quoted; i++) {
+                byte b = part.get(i);
+                quoted = b == ',' || b == '\n' || b == '"';
+            }
+        }
+        if (quoted) out.write('"');
+        for (int p = 0; p < parts.length; p++) {
+            if (p > 0) out.write(';');
+            ByteBuffer part = parts[p];
+            if (quoted) {
+                for (int i = part.position(); i < part.limit(); i++) {
+                    byte b = part.get(i);
+                    if (b == '"') out.write('"');
+                    out.write(b);
+                }
+            } else {
+                int length = part.remaining();
+                if (length > scratch.length) scratch = new byte[length];
+                part.get(part.position(), scratch, 0, length);
+                out.write(scratch, 0, length);
+            }
+        }
+        if (quoted) out.write('"');
+        return scratch;
+    }
+
+    /**
+     * 基本类型下标归并排序（避免装箱；稳定）
+     */
+    static void sortRows(int[] rows, IntBinaryOperator comparator) {
+        int[] buffer = new int[rows.length];
+        for (int width = 1; width < rows.length; width *= 2) {
+            for (int lo = 0; lo < rows.length - width; lo += 2 * width) {
+                int mid = lo + width;
+                int hi = Math.min(lo + 2 * width, rows.length);
+                int i = lo, j = mid, k = lo;
+                while (i < mid && j < hi) {
+                    buffer[k++] = comparator.applyAsInt(rows[i], rows[j]) <= 0 ? rows[i++] : rows[j++];
+                }
+                while (i < mid) buffer[k++] = rows[i++];
+                while (j < hi) buffer[k++] = rows[j++];
+                System.arraycopy(buffer, lo, rows, lo, hi - lo);
+            }
+        }
+    }
+
+    // ==================== CSV 增量导出（基于上一次结果） ====================
+
+    /**
+     * 与上一次导出结果按审查人工号做归并比对，仅导出新增/删除/变更的行
+     * 差异文件名在完整文件名基础上追加 "_diff"，如 code_review_assignments_20260207_174522_diff.csv
+     * 上一次结果以游标方式按工号升序逐行读取：
+     * - 快照：mmap 后按工号排序行号（仅 int 数组），归并推进到哪一行才解码哪一行
+     * - 已按工号有序的 CSV（exportToCsv / writeCsv 的输出及本方法输出的补丁全量文件）：逐条流式读取
+     * - 无序 CSV（如旧版本导出或手工编辑的文件）：整体读入后排序
+     *
+     * @param assignment   新的分配结果 Map<审查人, 被审查人列表>
+     * @param previousPath 上一次的 CSV 导出文件，或二进制快照（.nras）
+     * @param basePath     基础路径（规则同 {@link #exportToCsv}）
+     * @param writePatched 是否同时输出打补丁后的完整 CSV（未变更的行原样保留，按工号有序）
+     * @return 差异行数（新增 + 删除 + 变更）
+     * @throws IOException 文件读写异常或上一次导出文件无法解析（含表头不符，如误传差异文件）
+     */
+    public static int exportCsvDiff(Map<Person, List<Person>> assignment, String previousPath,
+                                    String basePath, boolean writePatched) throws IOException {
+        validateAssignment(assignment, "CSV差异");
+        if (previousPath == null || previousPath.trim().isEmpty()) {
+            throw new IllegalArgumentException("CSV差异导出: 上一次导出文件路径为空");
+        }
+
+        // 新结果按审查人工号排序（仅排序引用，字段在写出时生成）
+        List<Map.Entry<Person, List<Person>>> current = sortedByReviewerId(assignment);
+        String contentTime = LocalDateTime.now().format(CONTENT_TIMESTAMP_FORMATTER);
+
+        String timestamp = LocalDateTime.now().format(FILENAME_TIMESTAMP_FORMATTER);
+        String patchedPath = generateTimestampedPath(basePath, timestamp, "csv", CSV_PREFIX);
+        String diffPath = patchedPath.substring(0, patchedPath.length() - ".csv".length()) + "_diff.csv";
+        if (writePatched && new File(patchedPath).getAbsoluteFile().equals(new File(previousPath).getAbsoluteFile())) {
+            throw new IllegalArgumentException("CSV差异导出: 补丁全量文件将覆盖上一次导出文件，请更换输出路径: " + patchedPath);
+        }
+
+        createParentDir(diffPath);
+
+        int added = 0, removed = 0, changed = 0;
+        try (PreviousRows previous = openPreviousRows(previousPath);
+             BufferedWriter diffWriter = newUtf8Writer(diffPath);
+             BufferedWriter patchedWriter = writePatched ? newUtf8Writer(patchedPath) : null) {
+
+            diffWriter.write("\ufeff");
+            diffWriter.write(DIFF_HEADER);
+            diffWriter.newLine();
+            if (patchedWriter != null) {
+                patchedWriter.write("\ufeff");
+                patchedWriter.write(CSV_HEADER);
+                patchedWriter.newLine();
+            }
+
+            String[] oldRow = previous.next();
+            int j = 0;
+            while (oldRow != null || j < current.size()) {
+                int cmp = oldRow == null ? 1
+                        : j == current.size() ? -1
+                        : compareIds(oldRow[1], current.get(j).getKey().getEmployeeId());
+                if (cmp < 0) {
+                    // 旧文件有、新分配无 → 删除
+                    writeDiffRow(diffWriter, "删除", oldRow, "");
+                    removed++;
+                    oldRow = previous.next();
+                } else if (cmp > 0) {
+                    // 新分配有、旧文件无 → 新增
+                    Map.Entry<Person, List<Person>> entry = current.get(j++);
+                    String[] row = csvFields(entry.getKey(), entry.getValue(), contentTime);
+                    writeDiffRow(diffWriter, "新增", row, "");
+                    if (patchedWriter != null) writeCsvRow(patchedWriter, row);
+                    added++;
+                } else {
+                    Map.Entry<Person, List<Person>> entry = current.get(j++);
+                    String[] newRow = csvFields(entry.getKey(), entry.getValue(), contentTime);
+                    if (sameAssignment(oldRow, newRow)) {
+                        if (patchedWriter != null) writeCsvRow(patchedWriter, oldRow);
+                    } else {
+                        writeDiffRow(diffWriter, "变更", newRow, oldRow[3]);
+                        if (patchedWriter != null) writeCsvRow(patchedWriter, newRow);
+                        changed++;
+                    }
+                    oldRow = previous.next();
+                }
+            }
+        }
+
+        System.out.printf("✅ CSV 差异导出成功: %s (新增 %d / 删除 %d / 变更 %d)%n",
+                diffPath, added, removed, changed);
+        if (writePatched) {
+            System.out.printf("✅ CSV 补丁全量导出成功: %s (共 %d 条记录)%n", patchedPath, assignment.size());
+        }
+        return added + removed + changed;
+    }
+
+    /**
+     * 上一次结果的行游标：按审查人工号升序逐行产出 CSV 字段（6 列，快照无分配时间该列留空），结束时返回 null
+     */
+    private interface PreviousRows extends Closeable {
+        String[] next() throws IOException;
+    }
+
+    /**
+     * 上一次结果能否单趟流式归并（快照，或已按审查人工号升序的 CSV），否则需整体读入内存排序
+     */
+    static boolean canStreamPrevious(String previousPath) throws IOException {
+        return isSnapshot(previousPath) || isSortedByReviewerId(previousPath);
+    }
+
+    private static boolean isSnapshot(String previousPath) {
+        return previousPath.endsWith("." + AssignmentSnapshot.SNAPSHOT_EXTENSION);
+    }
+
+    private static PreviousRows openPreviousRows(String previousPath) throws IOException {
+        if (isSnapshot(previousPath)) {
+            AssignmentSnapshot snapshot = AssignmentSnapshot.open(previousPath);
+            int[] rows = snapshot.rowsByReviewerId();
+            return new PreviousRows() {
+                private int next;
+
+                @Override
+                public String[] next() {
+                    return next == rows.length ? null : snapshotFields(snapshot, rows[next++]);
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+        }
+
+        if (isSortedByReviewerId(previousPath)) {
+            BufferedReader reader = openCsv(previousPath);
+            return new PreviousRows() {
+                private int recordNo = 1;
+
+                @Override
+                public String[] next() throws IOException {
+                    return nextCsvRow(reader, previousPath, ++recordNo);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    reader.close();
+                }
+            };
+        }
+
+        // 无序 CSV：无法单趟归并，整体读入后排序
+        List<String[]> rows = new ArrayList<>();
+        try (BufferedReader reader = openCsv(previousPath)) {
+            String[] row;
+            for (int recordNo = 2; (row = nextCsvRow(reader, previousPath, recordNo)) != null; recordNo++) {
+                rows.add(row);
+            }
+        }
+        rows.sort((x, y) -> compareIds(x[1], y[1]));
+        Iterator<String[]> iterator = rows.iterator();
+        return new PreviousRows() {
+            @Override
+            public String[] next() {
+                return iterator.hasNext() ? iterator.next() : null;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    private static String[] snapshotFields(AssignmentSnapshot snapshot, int row) {
+        int count = snapshot.revieweeCountAt(row);
+        StringBuilder names = new StringBuilder();
+        StringBuilder ids = new StringBuilder();
+        for (int k = 0; k < count; k++) {
+            if (k > 0) {
+                names.append(';');
+                ids.append(';');
+            }
+            names.append(snapshot.revieweeNameAt(row, k));
+            ids.append(snapshot.revieweeIdAt(row, k));
+        }
+        return new String[]{
+                snapshot.reviewerNameAt(row),
+                snapshot.reviewerIdAt(row),
+                names.toString(),
+                ids.toString(),
+                String.valueOf(count),
+                ""
+        };
+    }
+
+    /**
+     * 首趟流式扫描：判断 CSV 是否已按审查人工号升序（是则第二趟可直接归并）
+     */
+    private static boolean isSortedByReviewerId(String previousPath) throws IOException {
+        try (BufferedReader reader = openCsv(previousPath)) {
+            String previousId = null;
+            String[] row;
+            for (int recordNo = 2; (row = nextCsvRow(reader, previousPath, recordNo)) != null; recordNo++) {
+                if (previousId != null && compareIds(previousId, row[1]) > 0) {
+                    return false;
+                }
+                previousId = row[1];
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 打开上一次导出的 CSV 并校验表头（差异文件多出变更类型列，不能作为比对基准）
+     */
+    private static BufferedReader openCsv(String previousPath) throws IOException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(previousPath), StandardCharsets.UTF_8));
+        List<String> header = readCsvRecord(reader);
+        if (header == null || !String.join(",", header).equals(CSV_HEADER)) {
+            reader.close();
+            if (header != null && String.join(",", header).equals(DIFF_HEADER)) {
+                throw new IOException("上一次导出文件是差异文件，请改用完整 CSV 或快照: " + previousPath);
+            }
+            throw new IOException("上一次导出文件表头不符（应为 " + CSV_HEADER + "）: " + previousPath);
+        }
+        return reader;
+    }
+
+    /**
+     * 读取下一条数据记录（跳过空行），补齐为 6 列
+     *
+     * @return 字段数组，文件结束时返回 null
+     */
+    private static String[] nextCsvRow(BufferedReader reader, String previousPath, int recordNo) throws IOException {
+        List<String> record;
+        do {
+            record = readCsvRecord(reader);
+            if (record == null) return null;
+        } while (record.size() == 1 && record.get(0).isEmpty()); // 空行
+        if (record.size() < 5) {
+            throw new IOException(String.format("无法解析上一次导出文件第 %d 条记录: %s", recordNo, previousPath));
+        }
+        String[] row = new String[6];
+        for (int k = 0; k < row.length; k++) {
+            row[k] = k < record.size() ? record.get(k) : "";
+        }
+        return row;
+    }
+
+    /**
+     * 分配条目按审查人工号升序（仅排序引用）
+     */
+    private static List<Map.Entry<Person, List<Person>>> sortedByReviewerId(Map<Person, List<Person>> assignment) {
+        List<Map.Entry<Person, List<Person>>> entries = new ArrayList<>(assignment.entrySet());
+        entries.sort((x, y) -> compareIds(x.getKey().getEmployeeId(), y.getKey().getEmployeeId()));
+        return entries;
+    }
+
+    /**
+     * 按码点比较工号（与快照按 UTF-8 无符号字节排序的顺序一致）
+     */
+    private static int compareIds(String a, String b) {
+        int i = 0, j = 0;
+        while (i < a.length() && j < b.length()) {
+            int ca = a.codePointAt(i);
+            int cb = b.codePointAt(j);
+            if (ca != cb) return Integer.compare(ca, cb);
+            i += Character.charCount(ca);
+            j += Character.charCount(cb);
         }
+        return Integer.compare(a.length() - i, b.length() - j);
+    }
+
+    /**
+     * 读取一条 CSV 记录（支持引号包裹、双引号转义及字段内换行）
+     *
+     * @return 字段列表，文件结束时返回 null
+     */
+    private static List<String> readCsvRecord(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null) return null;
+        if (line.startsWith("\ufeff")) line = line.substring(1);
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (!quoted) break;
+            // 引号未闭合：字段内含换行，继续读取下一行
+            line = reader.readLine();
+            if (line == null) break;
+            field.append('\n');
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static boolean sameAssignment(String[] oldRow, String[] newRow) {
+        return oldRow[0].equals(newRow[0]) && oldRow[2].equals(newRow[2]) && oldRow[3].equals(newRow[3]);
+    }
+
+    private static void writeDiffRow(BufferedWriter writer, String changeType, String[] row,
+                                     String previousRevieweeIds) throws IOException {
+        String[] diffRow = new String[row.length + 2];
+        diffRow[0] = changeType;
+        System.arraycopy(row, 0, diffRow, 1, row.length);
+        diffRow[row.length + 1] = previousRevieweeIds;
+        writeCsvRow(writer, diffRow);
     }
 
     // ==================== 智能路径生成（核心增强） ====================
@@ -197,8 +764,8 @@ public final class AssignmentExporter {
      * @param defaultPrefix 默认文件名前缀（当basePath为目录时使用）
      * @return 完整文件路径
      */
-    private static String generateTimestampedPath(String basePath, String timestamp,
-                                                  String extension, String defaultPrefix) {
+    static String generateTimestampedPath(String basePath, String timestamp,
+                                          String extension, String defaultPrefix) {
         if (basePath == null || basePath.trim().isEmpty()) {
             basePath = "."; // 默认当前目录
         }
@@ -248,7 +815,7 @@ public final class AssignmentExporter {
     /**
      * 验证分配数据有效性
      */
-    private static void validateAssignment(Map<Person, List<Person>> assignment, String format) {
+    static void validateAssignment(Map<Person, List<Person>> assignment, String format) {
         if (assignment == null || assignment.isEmpty()) {
             throw new IllegalArgumentException(format + "导出: 分配数据为空");
         }
@@ -264,10 +831,19 @@ public final class AssignmentExporter {
         }
     }
 
+    /**
+     * 验证堆外名册分配数据有效性
+     */
+    static void validateAssignment(RosterAssignment assignment, String format) {
+        if (assignment == null || assignment.getReviewerCount() == 0) {
+            throw new IllegalArgumentException(format + "导出: 分配数据为空");
+        }
+    }
+
     /**
      * 创建文件父目录
      */
-    private static void createParentDir(String filePath) throws IOException {
+    static void createParentDir(String filePath) throws IOException {
         File file = new File(filePath);
         File parent = file.getParentFile();
         if (parent != null && !parent.exists() && !parent.mkdirs()) {
@@ -275,6 +851,35 @@ public final class AssignmentExporter {
         }
     }
 
+    /**
+     * 生成一行 CSV 原始字段（未转义）：审查人姓名、工号、被审查人姓名、工号、人数、分配时间
+     */
+    private static String[] csvFields(Person reviewer, List<Person> reviewees, String contentTime) {
+        return new String[]{
+                reviewer.getName(),
+                reviewer.getEmployeeId(),
+                reviewees.stream().map(Person::getName).collect(Collectors.joining(";")),
+                reviewees.stream().map(Person::getEmployeeId).collect(Collectors.joining(";")),
+                String.valueOf(reviewees.size()),
+                contentTime
+        };
+    }
+
+    /**
+     * 逐字段转义后写出一行 CSV
+     */
+    private static void writeCsvRow(BufferedWriter writer, String[] fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) writer.write(',');
+            writer.write(escapeCsv(fields[i]));
+        }
+        writer.newLine();
+    }
+
+    private static BufferedWriter newUtf8Writer(String filePath) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(filePath), StandardCharsets.UTF_8));
+    }
+
     /**
      * CSV 字段转义
      */
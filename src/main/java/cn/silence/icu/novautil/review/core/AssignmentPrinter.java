@@ -3,6 +3,7 @@ package cn.silence.icu.novautil.review.core;
 import cn.silence.icu.novautil.review.model.Person;
 import cn.silence.icu.novautil.util.FormatUtils;
 
+import java.io.PrintStream;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -15,23 +16,72 @@ import java.util.stream.Collectors;
 public class AssignmentPrinter {
 
     public static void printAssignments(Map<Person, List<Person>> assignments) {
+        printAssignments(assignments, System.out);
+    }
+
+    /**
+     * 打印到指定输出（如 HTTP 响应体），版式与控制台输出一致
+     */
+    public static void printAssignments(Map<Person, List<Person>> assignments, PrintStream out) {
         // 动态计算最大显示宽度（中文安全）
         int maxReviewerWidth = assignments.keySet().stream().mapToInt(p -> FormatUtils.getDisplayWidth(p.toString())).max().orElse(20) + 2; // +2 留呼吸感
 
         int maxRevieweeWidth = assignments.values().stream().flatMap(List::stream).mapToInt(p -> FormatUtils.getDisplayWidth(p.toString())).max().orElse(20) + 2;
 
         // 表头
-        System.out.println(FormatUtils.leftAlign("审查人", maxReviewerWidth) + FormatUtils.leftAlign("→ 审查对象", maxRevieweeWidth));
-        System.out.println("─".repeat(Math.max(maxReviewerWidth + maxRevieweeWidth, 50)));
+        out.println(FormatUtils.leftAlign("审查人", maxReviewerWidth) + FormatUtils.leftAlign("→ 审查对象", maxRevieweeWidth));
+        out.println("─".repeat(Math.max(maxReviewerWidth + maxRevieweeWidth, 50)));
 
         // 数据行
         assignments.forEach((reviewer, targets) -> {
             String reviewerStr = FormatUtils.leftAlign(reviewer.toString(), maxReviewerWidth);
             String targetsStr = targets.stream().map(Person::toString).collect(Collectors.joining(", "));
-            System.out.println(reviewerStr + targetsStr);
+            out.println(reviewerStr + targetsStr);
         });
 
+        out.println("─".repeat(Math.max(maxReviewerWidth + maxRevieweeWidth, 50)));
+        out.printf("✅ 共 %d 人参与审查，覆盖全部被审查人员%n", assignments.size());
+    }
+
+    public static void printAssignments(RosterAssignment assignment) {
+        // 显示宽度直接按堆外 UTF-8 字节计算："姓名(工号)" = 姓名 + 工号 + 2
+        int maxReviewerWidth = 0;
+        int maxRevieweeWidth = 0;
+        for (int row = 0; row < assignment.getReviewerCount(); row++) {
+            maxReviewerWidth = Math.max(maxReviewerWidth, displayWidth(assignment, assignment.reviewerAt(row)));
+            for (int k = 0; k < assignment.revieweeCount(row); k++) {
+                maxRevieweeWidth = Math.max(maxRevieweeWidth, displayWidth(assignment, assignment.revieweeAt(row, k)));
+            }
+        }
+        maxReviewerWidth = (maxReviewerWidth == 0 ? 20 : maxReviewerWidth) + 2; // +2 留呼吸感
+        maxRevieweeWidth = (maxRevieweeWidth == 0 ? 20 : maxRevieweeWidth) + 2;
+
+        // 表头
+        System.out.println(FormatUtils.leftAlign("审查人", maxReviewerWidth) + FormatUtils.leftAlign("→ 审查对象", maxRevieweeWidth));
+        System.out.println("─".repeat(Math.max(maxReviewerWidth + maxRevieweeWidth, 50)));
+
+        // 数据行（逐行按需解码）
+        StringBuilder line = new StringBuilder();
+        for (int row = 0; row < assignment.getReviewerCount(); row++) {
+            line.setLength(0);
+            line.append(FormatUtils.leftAlign(label(assignment, assignment.reviewerAt(row)), maxReviewerWidth));
+            for (int k = 0; k < assignment.revieweeCount(row); k++) {
+                if (k > 0) line.append(", ");
+                line.append(label(assignment, assignment.revieweeAt(row, k)));
+            }
+            System.out.println(line);
+        }
+
         System.out.println("─".repeat(Math.max(maxReviewerWidth + maxRevieweeWidth, 50)));
-        System.out.printf("✅ 共 %d 人参与审查，覆盖全部被审查人员%n", assignments.size());
+        System.out.printf("✅ 共 %d 人参与审查，覆盖全部被审查人员%n", assignment.getReviewerCount());
+    }
+
+    private static int displayWidth(RosterAssignment assignment, int person) {
+        return FormatUtils.getDisplayWidth(assignment.nameBytesOf(person))
+                + FormatUtils.getDisplayWidth(assignment.employeeIdBytesOf(person)) + 2;
+    }
+
+    private static String label(RosterAssignment assignment, int person) {
+        return String.format("%s(%s)", assignment.nameOf(person), assignment.employeeIdOf(person));
     }
 }
@@ -0,0 +1,432 @@
+package cn.silence.icu.novautil.review.core;
+
+import cn.silence.icu.novautil.review.model.Person;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * 代码审查分配结果二进制快照（版本化 + 内存映射读取）
+ * 文件布局（int 均为大端，字符串字节区放在末尾保证 int 区对齐）：
+ * 1. 头部：魔数、版本、人数、字符串数、字符串字节数、审查人数、分配边数、哈希槽数
+ * 2. 人员表：姓名下标[人数]、工号下标[人数]（指向字符串表）
+ * 3. 正向 CSR：人员→审查行[人数]、审查行→人员[审查人数]、行偏移[审查人数+1]、被审查人[边数]
+ * 4. 反向 CSR：被审查人偏移[人数+1]、审查人[边数]
+ * 5. 工号哈希索引：开放寻址槽[哈希槽数]（存 人员下标+1，0 表示空槽）
+ * 6. 字典编码字符串表：偏移[字符串数+1] + UTF-8 字节（姓名/工号去重）
+ * ✅ 写入：整体编码后一次顺序写入 FileChannel
+ * ✅ 读取：mmap 映射后按需定位，审查人→被审查人 / 被审查人→审查人 均为 O(1)
+ */
+public final class AssignmentSnapshot {
+
+    private static final int MAGIC = 0x4E524153; // "NRAS"
+    private static final int VERSION = 1;
+    private static final int HEADER_INTS = 8;
+
+    // 默认文件名前缀与扩展名
+    private static final String SNAPSHOT_PREFIX = "review_snapshot";
+    static final String SNAPSHOT_EXTENSION = "nras";
+
+    private final ByteBuffer buffer;
+    private final int personCount;
+    private final int reviewerCount;
+    private final int edgeCount;
+    private final int hashSize;
+
+    // 各区段在文件中的起始字节位置
+    private final int nameIdxPos;
+    private final int idIdxPos;
+    private final int personRowPos;
+    private final int rowPersonPos;
+    private final int rowOffsetPos;
+    private final int targetPos;
+    private final int revOffsetPos;
+    private final int revSourcePos;
+    private final int hashPos;
+    private final int strOffsetPos;
+    private final int strBytesPos;
+
+    private AssignmentSnapshot(ByteBuffer buffer, String filePath) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_INTS * Integer.BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("不是有效的分配快照文件: " + filePath);
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IOException(String.format("不支持的快照版本: %d（当前支持 %d）", version, VERSION));
+        }
+        this.personCount = buffer.getInt(8);
+        int stringCount = buffer.getInt(12);
+        int stringBytes = buffer.getInt(16);
+        this.reviewerCount = buffer.getInt(20);
+        this.edgeCount = buffer.getInt(24);
+        this.hashSize = buffer.getInt(28);
+
+        int pos = HEADER_INTS * Integer.BYTES;
+        this.nameIdxPos = pos;
+        this.idIdxPos = pos += personCount * Integer.BYTES;
+        this.personRowPos = pos += personCount * Integer.BYTES;
+        this.rowPersonPos = pos += personCount * Integer.BYTES;
+        this.rowOffsetPos = pos += reviewerCount * Integer.BYTES;
+        this.targetPos = pos += (reviewerCount + 1) * Integer.BYTES;
+        this.revOffsetPos = pos += edgeCount * Integer.BYTES;
+        this.revSourcePos = pos += (personCount + 1) * Integer.BYTES;
+        this.hashPos = pos += edgeCount * Integer.BYTES;
+        this.strOffsetPos = pos += hashSize * Integer.BYTES;
+        this.strBytesPos = pos += (stringCount + 1) * Integer.BYTES;
+        if ((long) strBytesPos + stringBytes != buffer.capacity()) {
+            throw new IOException("快照文件长度与头部不一致: " + filePath);
+        }
+    }
+
+    // ==================== 快照写入 ====================
+
+    /**
+     * 将分配结果写入二进制快照（自动在文件名添加时间戳）
+     *
+     * @param assignment 分配结果 Map<审查人, 被审查人列表>
+     * @param basePath   基础路径（目录或文件路径，规则同 {@link AssignmentExporter#exportToCsv}）
+     * @return 实际写入的快照文件路径
+     * @throws IOException 文件写入异常
+     */
+    public static String write(Map<Person, List<Person>> assignment, String basePath) throws IOException {
+        AssignmentExporter.validateAssignment(assignment, "快照");
+
+        String timestamp = LocalDateTime.now().format(AssignmentExporter.FILENAME_TIMESTAMP_FORMATTER);
+        String finalPath = AssignmentExporter.generateTimestampedPath(
+                basePath, timestamp, SNAPSHOT_EXTENSION, SNAPSHOT_PREFIX);
+
+        AssignmentExporter.createParentDir(finalPath);
+        writeTo(assignment, Paths.get(finalPath));
+
+        System.out.printf("✅ 快照导出成功: %s (共 %d 条记录)%n", finalPath, assignment.size());
+        return finalPath;
+    }
+
+    /**
+     * 将分配结果编码后一次性顺序写入指定文件（覆盖已有文件）
+     */
+    static void writeTo(Map<Person, List<Person>> assignment, Path path) throws IOException {
+        ByteBuffer encoded = encode(assignment);
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (encoded.hasRemaining()) {
+                channel.write(encoded);
+            }
+        }
+    }
+
+    private static ByteBuffer encode(Map<Person, List<Person>> assignment) {
+        // 人员统一编号（审查人、被审查人按出现顺序）
+        Map<Person, Integer> personIndex = new LinkedHashMap<>();
+        int edges = 0;
+        for (Map.Entry<Person, List<Person>> entry : assignment.entrySet()) {
+            personIndex.putIfAbsent(entry.getKey(), personIndex.size());
+            for (Person reviewee : entry.getValue()) {
+                personIndex.putIfAbsent(reviewee, personIndex.size());
+            }
+            edges += entry.getValue().size();
+        }
+        int people = personIndex.size();
+        int rows = assignment.size();
+
+        // 字典编码：姓名与工号共用一张去重字符串表
+        Map<String, Integer> stringIndex = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+        int[] nameIdx = new int[people];
+        int[] idIdx = new int[people];
+        int p = 0;
+        for (Person person : personIndex.keySet()) {
+            nameIdx[p] = intern(person.getName(), stringIndex, strings);
+            idIdx[p] = intern(person.getEmployeeId(), stringIndex, strings);
+            p++;
+        }
+        int[] strOffsets = new int[strings.size() + 1];
+        for (int i = 0; i < strings.size(); i++) {
+            strOffsets[i + 1] = strOffsets[i] + strings.get(i).length;
+        }
+
+        // 正向 CSR：审查行 → 被审查人
+        int[] personRow = new int[people];
+        Arrays.fill(personRow, -1);
+        int[] rowPerson = new int[rows];
+        int[] rowOffsets = new int[rows + 1];
+        int[] targets = new int[edges];
+        int[] revOffsets = new int[people + 1];
+        int row = 0;
+        int edge = 0;
+        for (Map.Entry<Person, List<Person>> entry : assignment.entrySet()) {
+            int reviewer = personIndex.get(entry.getKey());
+            personRow[reviewer] = row;
+            rowPerson[row] = reviewer;
+            for (Person reviewee : entry.getValue()) {
+                int target = personIndex.get(reviewee);
+                targets[edge++] = target;
+                revOffsets[target + 1]++;
+            }
+            rowOffsets[++row] = edge;
+        }
+
+        // 反向 CSR：被审查人 → 审查人（计数前缀和 + 游标回填）
+        for (int i = 0; i < people; i++) {
+            revOffsets[i + 1] += revOffsets[i];
+        }
+        int[] revSources = new int[edges];
+        int[] cursor = Arrays.copyOf(revOffsets, people);
+        for (int r = 0; r < rows; r++) {
+            for (int e = rowOffsets[r]; e < rowOffsets[r + 1]; e++) {
+                revSources[cursor[targets[e]]++] = rowPerson[r];
+            }
+        }
+
+        // 工号哈希索引（线性探测，负载因子 ≤ 0.5；按 long 计算并封顶 2^30，超大规模由下方 2GB 上限拦截）
+        int hashSize = (int) Math.min(Long.highestOneBit(Math.max(people, 1)) << 2, 1L << 30);
+        int[] slots = new int[hashSize];
+        for (int i = 0; i < people; i++) {
+            byte[] id = strings.get(idIdx[i]);
+            int slot = hash(id) & (hashSize - 1);
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & (hashSize - 1);
+            }
+            slots[slot] = i + 1;
+        }
+
+        long intCount = HEADER_INTS + 3L * people + rows + (rows + 1L) + edges
+                + (people + 1L) + edges + hashSize + strOffsets.length;
+        long total = intCount * Integer.BYTES + strOffsets[strings.size()];
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("快照导出: 数据量超过单文件 2GB 上限");
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate((int) total);
+        buf.putInt(MAGIC).putInt(VERSION).putInt(people).putInt(strings.size())
+                .putInt(strOffsets[strings.size()]).putInt(rows).putInt(edges).putInt(hashSize);
+        putInts(buf, nameIdx);
+        putInts(buf, idIdx);
+        putInts(buf, personRow);
+        putInts(buf, rowPerson);
+        putInts(buf, rowOffsets);
+        putInts(buf, targets);
+        putInts(buf, revOffsets);
+        putInts(buf, revSources);
+        putInts(buf, slots);
+        putInts(buf, strOffsets);
+        for (byte[] s : strings) {
+            buf.put(s);
+        }
+        buf.flip();
+        return buf;
+    }
+
+    // ==================== 快照读取（mmap） ====================
+
+    /**
+     * 以只读方式内存映射快照文件（不反序列化，查询时按需读取）
+     *
+     * @param filePath 快照文件路径
+     * @return 快照视图
+     * @throws IOException 文件不存在、格式或版本不匹配
+     */
+    public static AssignmentSnapshot open(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            return new AssignmentSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), filePath);
+        }
+    }
+
+    /**
+     * 查询某审查人负责的被审查人（O(1) 定位）
+     *
+     * @param employeeId 审查人工号
+     * @return 被审查人列表（非审查人或工号不存在时为空列表）
+     */
+    public List<Person> revieweesOf(String employeeId) {
+        int person = indexOf(employeeId);
+        if (person < 0) {
+            return Collections.emptyList();
+        }
+        int row = intAt(personRowPos, person);
+        if (row < 0) {
+            return Collections.emptyList();
+        }
+        return peopleIn(targetPos, intAt(rowOffsetPos, row), intAt(rowOffsetPos, row + 1));
+    }
+
+    /**
+     * 查询某被审查人的审查人（O(1) 定位）
+     *
+     * @param employeeId 被审查人工号
+     * @return 审查人列表（未被分配或工号不存在时为空列表）
+     */
+    public List<Person> reviewersOf(String employeeId) {
+        int person = indexOf(employeeId);
+        if (person < 0) {
+            return Collections.emptyList();
+        }
+        return peopleIn(revSourcePos, intAt(revOffsetPos, person), intAt(revOffsetPos, person + 1));
+    }
+
+    /**
+     * 还原完整分配结果（顺序与写入时一致，仅在确需全量时调用）
+     */
+    public Map<Person, List<Person>> toAssignment() {
+        Map<Person, List<Person>> assignment = new LinkedHashMap<>(reviewerCount * 4 / 3 + 1);
+        for (int row = 0; row < reviewerCount; row++) {
+            assignment.put(personAt(intAt(rowPersonPos, row)),
+                    peopleIn(targetPos, intAt(rowOffsetPos, row), intAt(rowOffsetPos, row + 1)));
+        }
+        return assignment;
+    }
+
+    // ==================== 按行读取（流式归并用） ====================
+
+    /**
+     * 审查行号按审查人工号升序排列（直接比较映射区的 UTF-8 字节，不解码；无符号字节序与码点序一致）
+     * 配合 reviewerIdAt / revieweeIdAt 等按行访问，可边遍历边解码，全程不构建 Person
+     */
+    public int[] rowsByReviewerId() {
+        int[] rows = new int[reviewerCount];
+        for (int i = 0; i < rows.length; i++) rows[i] = i;
+        AssignmentExporter.sortRows(rows, (a, b) -> compareStrings(reviewerIdIndex(a), reviewerIdIndex(b)));
+        return rows;
+    }
+
+    public String reviewerNameAt(int row) {
+        return stringAt(intAt(nameIdxPos, intAt(rowPersonPos, checkRow(row))));
+    }
+
+    public String reviewerIdAt(int row) {
+        return stringAt(reviewerIdIndex(checkRow(row)));
+    }
+
+    public int revieweeCountAt(int row) {
+        return intAt(rowOffsetPos, checkRow(row) + 1) - intAt(rowOffsetPos, row);
+    }
+
+    public String revieweeNameAt(int row, int k) {
+        return stringAt(intAt(nameIdxPos, intAt(targetPos, intAt(rowOffsetPos, checkRow(row)) + k)));
+    }
+
+    public String revieweeIdAt(int row, int k) {
+        return stringAt(intAt(idIdxPos, intAt(targetPos, intAt(rowOffsetPos, checkRow(row)) + k)));
+    }
+
+    public int getPersonCount() {
+        return personCount;
+    }
+
+    public int getReviewerCount() {
+        return reviewerCount;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private int indexOf(String employeeId) {
+        if (employeeId == null) {
+            return -1;
+        }
+        byte[] key = employeeId.trim().getBytes(StandardCharsets.UTF_8);
+        int slot = hash(key) & (hashSize - 1);
+        int value;
+        while ((value = intAt(hashPos, slot)) != 0) {
+            if (stringEquals(intAt(idIdxPos, value - 1), key)) {
+                return value - 1;
+            }
+            slot = (slot + 1) & (hashSize - 1);
+        }
+        return -1;
+    }
+
+    private List<Person> peopleIn(int sectionPos, int from, int to) {
+        List<Person> result = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            result.add(personAt(intAt(sectionPos, i)));
+        }
+        return result;
+    }
+
+    private Person personAt(int person) {
+        return new Person(stringAt(intAt(nameIdxPos, person)), stringAt(intAt(idIdxPos, person)));
+    }
+
+    private String stringAt(int index) {
+        int from = intAt(strOffsetPos, index);
+        byte[] bytes = new byte[intAt(strOffsetPos, index + 1) - from];
+        buffer.get(strBytesPos + from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int reviewerIdIndex(int row) {
+        return intAt(idIdxPos, intAt(rowPersonPos, row));
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= reviewerCount) {
+            throw new IndexOutOfBoundsException("快照审查行越界: " + row + "（共 " + reviewerCount + " 行）");
+        }
+        return row;
+    }
+
+    /**
+     * 按 UTF-8 无符号字节比较字符串表中的两项
+     */
+    private int compareStrings(int i, int j) {
+        int a = intAt(strOffsetPos, i), aEnd = intAt(strOffsetPos, i + 1);
+        int b = intAt(strOffsetPos, j), bEnd = intAt(strOffsetPos, j + 1);
+        while (a < aEnd && b < bEnd) {
+            int cmp = Integer.compare(buffer.get(strBytesPos + a++) & 0xFF, buffer.get(strBytesPos + b++) & 0xFF);
+            if (cmp != 0) return cmp;
+        }
+        return Integer.compare(aEnd - a, bEnd - b);
+    }
+
+    private boolean stringEquals(int index, byte[] key) {
+        int from = intAt(strOffsetPos, index);
+        if (intAt(strOffsetPos, index + 1) - from != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (buffer.get(strBytesPos + from + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int intAt(int sectionPos, int index) {
+        return buffer.getInt(sectionPos + index * Integer.BYTES);
+    }
+
+    private static int intern(String value, Map<String, Integer> index, List<byte[]> strings) {
+        return index.computeIfAbsent(value, k -> {
+            strings.add(k.getBytes(StandardCharsets.UTF_8));
+            return strings.size() - 1;
+        });
+    }
+
+    private static void putInts(ByteBuffer buf, int[] values) {
+        buf.asIntBuffer().put(values);
+        buf.position(buf.position() + values.length * Integer.BYTES);
+    }
+
+    /**
+     * FNV-1a 哈希（读写两端基于同一 UTF-8 字节计算，与 JVM 实现无关）
+     */
+    private static int hash(byte[] bytes) {
+        int h = 0x811C9DC5;
+        for (byte b : bytes) {
+            h = (h ^ (b & 0xFF)) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+}
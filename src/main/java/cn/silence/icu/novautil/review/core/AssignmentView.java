@@ -0,0 +1,193 @@
+package cn.silence.icu.novautil.review.core;
+
+import cn.silence.icu.novautil.review.model.Person;
+
+import java.util.*;
+
+/**
+ * 惰性分配视图：只保存打乱后的排列与各方向偏移，不物化 Map
+ * 人员下标为全局下标：[0, |A|) 属于 poolA，[|A|, |A|+|B|) 属于 poolB（单池时只有 poolA）
+ * 1. reviewerOrder / revieweeOrder 按方向拼接：方向 d 的审查方占 [reviewerFrom[d], reviewerFrom[d+1])，被审查方占 [revieweeFrom[d], revieweeFrom[d+1])
+ * 2. 方向内第 k 位被审查人由第 k % |审查方| 位审查人负责（与 assignDirection 的抽样/均衡规则一致）
+ * 3. 单池闭环只有一个排列：第 i 位审查第 i+1 位（revieweeOrder 与 reviewerOrder 共用同一数组）
+ * 工号→下标哈希与反向位置表在首次按工号查询时才构建（O(n) 一次），之后 reviewerOf / revieweesOf 均为 O(1) 定位
+ *
+ * @author rainofsilence
+ * @version 1.0.0
+ * @since 2026/02/13 09:50 周五
+ */
+public final class AssignmentView {
+
+    private final Person[] people;
+    private final boolean ring;
+    private final int[] reviewerOrder;
+    private final int[] revieweeOrder;
+    private final int[] reviewerFrom;
+    private final int[] revieweeFrom;
+
+    // 惰性索引（首次查询时构建）
+    private volatile int[] slots;
+    private int[] reviewerPosition;
+    private int[] revieweePosition;
+
+    AssignmentView(Person[] people, boolean ring, int[] reviewerOrder, int[] revieweeOrder,
+                   int[] reviewerFrom, int[] revieweeFrom) {
+        this.people = people;
+        this.ring = ring;
+        this.reviewerOrder = reviewerOrder;
+        this.revieweeOrder = revieweeOrder;
+        this.reviewerFrom = reviewerFrom;
+        this.revieweeFrom = revieweeFrom;
+    }
+
+    // ==================== 按工号查询 ====================
+
+    /**
+     * 谁审查我（被审查方100%覆盖，因此池内任何人都有审查人）
+     *
+     * @param employeeId 被审查人工号
+     * @return 审查人，工号不在池内时返回 null
+     */
+    public Person reviewerOf(String employeeId) {
+        int person = indexOf(employeeId);
+        if (person < 0) {
+            return null;
+        }
+        int position = revieweePosition[person];
+        if (ring) {
+            return people[reviewerOrder[position == 0 ? reviewerOrder.length - 1 : position - 1]];
+        }
+        int d = position < revieweeFrom[1] ? 0 : 1;
+        int reviewers = reviewerFrom[d + 1] - reviewerFrom[d];
+        return people[reviewerOrder[reviewerFrom[d] + (position - revieweeFrom[d]) % reviewers]];
+    }
+
+    /**
+     * 我审查谁
+     *
+     * @param employeeId 审查人工号
+     * @return 被审查人列表，工号不在池内或本轮未被抽中时为空列表
+     */
+    public List<Person> revieweesOf(String employeeId) {
+        int person = indexOf(employeeId);
+        if (person < 0) {
+            return Collections.emptyList();
+        }
+        int position = reviewerPosition[person];
+        if (ring) {
+            return Collections.singletonList(people[revieweeOrder[(position + 1) % revieweeOrder.length]]);
+        }
+        int d = position < reviewerFrom[1] ? 0 : 1;
+        return revieweesAt(d, position - reviewerFrom[d]);
+    }
+
+    // ==================== 统计与物化 ====================
+
+    /**
+     * 实际参与审查的人数
+     */
+    public int getReviewerCount() {
+        if (ring) {
+            return reviewerOrder.length;
+        }
+        int count = 0;
+        for (int d = 0; d < 2; d++) {
+            count += Math.min(reviewerFrom[d + 1] - reviewerFrom[d], revieweeFrom[d + 1] - revieweeFrom[d]);
+        }
+        return count;
+    }
+
+    /**
+     * 物化为 Map<审查人, 被审查人列表>（结构与 CodeReviewAssigner 的 Map 版本一致，仅在确需时调用）
+     */
+    public Map<Person, List<Person>> toMap() {
+        Map<Person, List<Person>> assignment = new LinkedHashMap<>(getReviewerCount() * 4 / 3 + 1);
+        if (ring) {
+            int n = reviewerOrder.length;
+            for (int i = 0; i < n; i++) {
+                assignment.put(people[reviewerOrder[i]], Collections.singletonList(people[reviewerOrder[(i + 1) % n]]));
+            }
+            return assignment;
+        }
+        for (int d = 0; d < 2; d++) {
+            int active = Math.min(reviewerFrom[d + 1] - reviewerFrom[d], revieweeFrom[d + 1] - revieweeFrom[d]);
+            for (int j = 0; j < active; j++) {
+                assignment.put(people[reviewerOrder[reviewerFrom[d] + j]], revieweesAt(d, j));
+            }
+        }
+        return assignment;
+    }
+
+    // ==================== 辅助方法 ====================
+
+    /**
+     * 方向 d 中第 j 位审查人负责第 j, j+r, j+2r... 位被审查人
+     */
+    private List<Person> revieweesAt(int d, int j) {
+        int reviewers = reviewerFrom[d + 1] - reviewerFrom[d];
+        int reviewees = revieweeFrom[d + 1] - revieweeFrom[d];
+        if (j >= reviewees) {
+            return Collections.emptyList(); // 大池中未被抽中
+        }
+        if (reviewers >= reviewees) {
+            return Collections.singletonList(people[revieweeOrder[revieweeFrom[d] + j]]);
+        }
+        List<Person> targets = new ArrayList<>((reviewees - j + reviewers - 1) / reviewers);
+        for (int k = j; k < reviewees; k += reviewers) {
+            targets.add(people[revieweeOrder[revieweeFrom[d] + k]]);
+        }
+        return targets;
+    }
+
+    private int indexOf(String employeeId) {
+        if (employeeId == null) {
+            return -1;
+        }
+        int[] table = slots != null ? slots : buildIndex();
+        String id = employeeId.trim();
+        int mask = table.length - 1;
+        for (int slot = spread(id.hashCode()) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int candidate = table[slot] - 1;
+            if (people[candidate].getEmployeeId().equals(id)) {
+                return candidate;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 构建工号哈希（开放寻址，存 下标+1）与反向位置表；slots 最后发布，保证并发读取看到完整索引
+     */
+    private synchronized int[] buildIndex() {
+        if (slots != null) {
+            return slots;
+        }
+        int[] table = new int[Integer.highestOneBit(Math.max(people.length, 1)) << 2];
+        int mask = table.length - 1;
+        for (int i = 0; i < people.length; i++) {
+            int slot = spread(people[i].getEmployeeId().hashCode()) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
+        }
+        reviewerPosition = new int[people.length];
+        for (int k = 0; k < reviewerOrder.length; k++) {
+            reviewerPosition[reviewerOrder[k]] = k;
+        }
+        if (ring) {
+            revieweePosition = reviewerPosition;
+        } else {
+            revieweePosition = new int[people.length];
+            for (int k = 0; k < revieweeOrder.length; k++) {
+                revieweePosition[revieweeOrder[k]] = k;
+            }
+        }
+        slots = table;
+        return table;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+}
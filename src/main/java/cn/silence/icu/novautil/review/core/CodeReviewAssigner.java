@@ -1,8 +1,11 @@
 package cn.silence.icu.novautil.review.core;
 
+import cn.silence.icu.novautil.review.model.OffHeapRoster;
 import cn.silence.icu.novautil.review.model.Person;
+import cn.silence.icu.novautil.review.model.ReviewConstraints;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 /**
@@ -12,6 +15,10 @@ import java.util.stream.Collectors;
  * 2. 审查人（reviewer）可抽样参与（大池仅抽样，小池全员上）
  * 3. 单池模式：循环互查（无自查）
  * 4. 双池模式：双向分配（A查B + B查A），严格隔离
+ * 5. 约束模式：排除规则编译为冲突图，随机修复后仍满足 1~4（视图/堆外/公平模式均有对应约束版本）
+ * 6. 堆外名册模式：算法与 1~4 相同，全程只操作下标，结果为 RosterAssignment
+ * 7. 惰性视图模式：只保存排列与方向偏移，按工号 O(1) 反查审查关系，Map 按需物化
+ * 8. 公平模式：按跨轮次累计负载部分选择审查人，长期工作量趋于均衡
  */
 public final class CodeReviewAssigner {
 
@@ -29,13 +36,29 @@ public final class CodeReviewAssigner {
      * @throws IllegalArgumentException 池子为空/不足2人/含重复工号
      */
     public static Map<Person, List<Person>> assignSinglePool(List<Person> people) {
+        return assignSinglePool(people, ThreadLocalRandom.current());
+    }
+
+    /**
+     * 单池循环分配（固定种子）：同一人员池与种子总是得到相同结果，便于复现与缓存
+     *
+     * @param people 人员池（至少2人）
+     * @param seed   随机种子
+     * @return Map<审查人, 被审查人> （一对一）
+     * @throws IllegalArgumentException 池子为空/不足2人/含重复工号
+     */
+    public static Map<Person, List<Person>> assignSinglePool(List<Person> people, long seed) {
+        return assignSinglePool(people, new Random(seed));
+    }
+
+    private static Map<Person, List<Person>> assignSinglePool(List<Person> people, Random random) {
         validatePeople(people, "单池");
         if (people.size() < 2) {
             throw new IllegalArgumentException("单池模式至少需要2人");
         }
 
         List<Person> shuffled = new ArrayList<>(people);
-        Collections.shuffle(shuffled); // 打乱避免固定顺序
+        Collections.shuffle(shuffled, random); // 打乱避免固定顺序
 
         Map<Person, List<Person>> assignment = new LinkedHashMap<>(shuffled.size());
         int n = shuffled.size();
@@ -47,6 +70,53 @@ public final class CodeReviewAssigner {
         return assignment;
     }
 
+    /**
+     * 单池约束分配：在排除规则与固定配对下形成审查闭环
+     *
+     * @param people      人员池（至少2人）
+     * @param constraints 约束（为空时等同 {@link #assignSinglePool(List)}）
+     * @return Map<审查人, 被审查人> （一对一）
+     * @throws IllegalArgumentException 池子非法 / 约束无法满足
+     */
+    public static Map<Person, List<Person>> assignSinglePool(List<Person> people, ReviewConstraints constraints) {
+        return assignSinglePool(people, constraints, ThreadLocalRandom.current());
+    }
+
+    /**
+     * 单池约束分配（固定种子）：约束为空时与 {@link #assignSinglePool(List, long)} 结果一致
+     *
+     * @param people      人员池（至少2人）
+     * @param constraints 约束
+     * @param seed        随机种子
+     * @return Map<审查人, 被审查人> （一对一）
+     * @throws IllegalArgumentException 池子非法 / 约束无法满足
+     */
+    public static Map<Person, List<Person>> assignSinglePool(List<Person> people, ReviewConstraints constraints,
+                                                             long seed) {
+        return assignSinglePool(people, constraints, new Random(seed));
+    }
+
+    private static Map<Person, List<Person>> assignSinglePool(List<Person> people, ReviewConstraints constraints,
+                                                              Random random) {
+        if (constraints == null || constraints.isEmpty()) {
+            return assignSinglePool(people, random);
+        }
+        validatePeople(people, "单池");
+        if (people.size() < 2) {
+            throw new IllegalArgumentException("单池模式至少需要2人");
+        }
+
+        ConflictGraph graph = ConflictGraph.compile(people, constraints);
+        int[] order = ConstraintSolver.solveRing(graph, random);
+
+        Map<Person, List<Person>> assignment = new LinkedHashMap<>(order.length);
+        int n = order.length;
+        for (int i = 0; i < n; i++) {
+            assignment.put(people.get(order[i]), Collections.singletonList(people.get(order[(i + 1) % n])));
+        }
+        return assignment;
+    }
+
     // ==================== 双池分配 ====================
 
     /**
@@ -61,15 +131,239 @@ public final class CodeReviewAssigner {
             List<Person> poolA,
             List<Person> poolB
     ) {
+        return assignDualPool(poolA, poolB, ThreadLocalRandom.current());
+    }
+
+    /**
+     * 双池智能分配（固定种子）：同一双池与种子总是得到相同结果，便于复现与缓存
+     *
+     * @param poolA 池A（如前端组）
+     * @param poolB 池B（如后端组）
+     * @param seed  随机种子
+     * @return Map<审查人, 被审查人列表> （一人可查多人）
+     * @throws IllegalArgumentException 池子为空/含重复工号/双池存在交集
+     */
+    public static Map<Person, List<Person>> assignDualPool(
+            List<Person> poolA,
+            List<Person> poolB,
+            long seed
+    ) {
+        return assignDualPool(poolA, poolB, new Random(seed));
+    }
+
+    private static Map<Person, List<Person>> assignDualPool(
+            List<Person> poolA,
+            List<Person> poolB,
+            Random random
+    ) {
+        validatePeople(poolA, "poolA");
+        validatePeople(poolB, "poolB");
+        validateNoOverlap(poolA, poolB);
+
+        Map<Person, List<Person>> assignment = new LinkedHashMap<>();
+        // A审查B：B池全员必须被查
+        assignment.putAll(assignDirection(poolA, poolB, "A→B", random));
+        // B审查A：A池全员必须被查
+        assignment.putAll(assignDirection(poolB, poolA, "B→A", random));
+        return assignment;
+    }
+
+    /**
+     * 双池约束分配：在排除规则与固定配对下双向分配（固定配对必须跨池）
+     *
+     * @param poolA       池A（如前端组）
+     * @param poolB       池B（如后端组）
+     * @param constraints 约束（为空时等同 {@link #assignDualPool(List, List)}）
+     * @return Map<审查人, 被审查人列表> （一人可查多人）
+     * @throws IllegalArgumentException 池子非法 / 约束无法满足
+     */
+    public static Map<Person, List<Person>> assignDualPool(
+            List<Person> poolA,
+            List<Person> poolB,
+            ReviewConstraints constraints
+    ) {
+        return assignDualPool(poolA, poolB, constraints, ThreadLocalRandom.current());
+    }
+
+    /**
+     * 双池约束分配（固定种子）：约束为空时与 {@link #assignDualPool(List, List, long)} 结果一致
+     *
+     * @param poolA       池A（如前端组）
+     * @param poolB       池B（如后端组）
+     * @param constraints 约束
+     * @param seed        随机种子
+     * @return Map<审查人, 被审查人列表> （一人可查多人）
+     * @throws IllegalArgumentException 池子非法 / 约束无法满足
+     */
+    public static Map<Person, List<Person>> assignDualPool(
+            List<Person> poolA,
+            List<Person> poolB,
+            ReviewConstraints constraints,
+            long seed
+    ) {
+        return assignDualPool(poolA, poolB, constraints, new Random(seed));
+    }
+
+    private static Map<Person, List<Person>> assignDualPool(
+            List<Person> poolA,
+            List<Person> poolB,
+            ReviewConstraints constraints,
+            Random random
+    ) {
+        if (constraints == null || constraints.isEmpty()) {
+            return assignDualPool(poolA, poolB, random);
+        }
+        validatePeople(poolA, "poolA");
+        validatePeople(poolB, "poolB");
+        validateNoOverlap(poolA, poolB);
+
+        // 冲突图下标：[0, |A|) 为池A，[|A|, |A|+|B|) 为池B
+        List<Person> everyone = concat(poolA, poolB);
+        ConflictGraph graph = ConflictGraph.compile(everyone, constraints);
+        int[] indexA = range(0, poolA.size());
+        int[] indexB = range(poolA.size(), everyone.size());
+
+        Map<Person, List<Person>> assignment = new LinkedHashMap<>();
+        assignment.putAll(assignDirection(everyone,
+                ConstraintSolver.solveDirection(graph, indexA, indexB, "A→B", random), indexA.length >= indexB.length));
+        assignment.putAll(assignDirection(everyone,
+                ConstraintSolver.solveDirection(graph, indexB, indexA, "B→A", random), indexB.length >= indexA.length));
+        return assignment;
+    }
+
+    /**
+     * 双池公平分配：规则同 {@link #assignDualPool(List, List)}，但按历史负载挑选审查人
+     * 大池审查小池时优先抽取累计任务最少的人；小池审查大池时多出的任务优先给累计最少的人
+     * 分配完成后本轮结果计入台账（由调用方决定何时保存）
+     *
+     * @param poolA  池A（如前端组）
+     * @param poolB  池B（如后端组）
+     * @param ledger 审查负载台账（会被更新）
+     * @return Map<审查人, 被审查人列表> （一人可查多人）
+     * @throws IllegalArgumentException 池子为空/含重复工号/双池存在交集/台账为 null
+     */
+    public static Map<Person, List<Person>> assignDualPoolFair(
+            List<Person> poolA,
+            List<Person> poolB,
+            ReviewLoadLedger ledger
+    ) {
+        return assignDualPoolFair(poolA, poolB, ledger, ThreadLocalRandom.current());
+    }
+
+    /**
+     * 双池公平分配（固定种子）：同一双池、同一台账状态与种子总是得到相同结果，便于复现
+     *
+     * @param poolA  池A（如前端组）
+     * @param poolB  池B（如后端组）
+     * @param ledger 审查负载台账（会被更新）
+     * @param seed   随机种子（负载相同者之间的取舍与被审查人顺序由其决定）
+     * @return Map<审查人, 被审查人列表> （一人可查多人）
+     * @throws IllegalArgumentException 池子为空/含重复工号/双池存在交集/台账为 null
+     */
+    public static Map<Person, List<Person>> assignDualPoolFair(
+            List<Person> poolA,
+            List<Person> poolB,
+            ReviewLoadLedger ledger,
+            long seed
+    ) {
+        return assignDualPoolFair(poolA, poolB, ledger, new Random(seed));
+    }
+
+    private static Map<Person, List<Person>> assignDualPoolFair(
+            List<Person> poolA,
+            List<Person> poolB,
+            ReviewLoadLedger ledger,
+            Random random
+    ) {
+        if (ledger == null) {
+            throw new IllegalArgumentException("公平模式需要审查负载台账");
+        }
         validatePeople(poolA, "poolA");
         validatePeople(poolB, "poolB");
         validateNoOverlap(poolA, poolB);
 
         Map<Person, List<Person>> assignment = new LinkedHashMap<>();
         // A审查B：B池全员必须被查
-        assignment.putAll(assignDirection(poolA, poolB, "A→B"));
+        assignment.putAll(assignDirectionFair(poolA, poolB, ledger, random));
         // B审查A：A池全员必须被查
-        assignment.putAll(assignDirection(poolB, poolA, "B→A"));
+        assignment.putAll(assignDirectionFair(poolB, poolA, ledger, random));
+        ledger.record(assignment);
+        return assignment;
+    }
+
+    /**
+     * 双池公平约束分配：约束为硬条件，历史负载为偏好
+     * 审查人按公平顺序（累计最少者在前）交给约束求解且不再打乱，约束不需要调整时结果与公平模式一致
+     *
+     * @param poolA       池A（如前端组）
+     * @param poolB       池B（如后端组）
+     * @param ledger      审查负载台账（会被更新）
+     * @param constraints 约束（为空时等同 {@link #assignDualPoolFair(List, List, ReviewLoadLedger)}）
+     * @return Map<审查人, 被审查人列表> （一人可查多人）
+     * @throws IllegalArgumentException 池子非法 / 台账为 null / 约束无法满足
+     */
+    public static Map<Person, List<Person>> assignDualPoolFair(
+            List<Person> poolA,
+            List<Person> poolB,
+            ReviewLoadLedger ledger,
+            ReviewConstraints constraints
+    ) {
+        return assignDualPoolFair(poolA, poolB, ledger, constraints, ThreadLocalRandom.current());
+    }
+
+    /**
+     * 双池公平约束分配（固定种子）：同一双池、台账状态、约束与种子总是得到相同结果
+     *
+     * @param poolA       池A（如前端组）
+     * @param poolB       池B（如后端组）
+     * @param ledger      审查负载台账（会被更新）
+     * @param constraints 约束（为空时等同 {@link #assignDualPoolFair(List, List, ReviewLoadLedger, long)}）
+     * @param seed        随机种子
+     * @return Map<审查人, 被审查人列表> （一人可查多人）
+     * @throws IllegalArgumentException 池子非法 / 台账为 null / 约束无法满足
+     */
+    public static Map<Person, List<Person>> assignDualPoolFair(
+            List<Person> poolA,
+            List<Person> poolB,
+            ReviewLoadLedger ledger,
+            ReviewConstraints constraints,
+            long seed
+    ) {
+        return assignDualPoolFair(poolA, poolB, ledger, constraints, new Random(seed));
+    }
+
+    private static Map<Person, List<Person>> assignDualPoolFair(
+            List<Person> poolA,
+            List<Person> poolB,
+            ReviewLoadLedger ledger,
+            ReviewConstraints constraints,
+            Random random
+    ) {
+        if (constraints == null || constraints.isEmpty()) {
+            return assignDualPoolFair(poolA, poolB, ledger, random);
+        }
+        if (ledger == null) {
+            throw new IllegalArgumentException("公平模式需要审查负载台账");
+        }
+        validatePeople(poolA, "poolA");
+        validatePeople(poolB, "poolB");
+        validateNoOverlap(poolA, poolB);
+
+        List<Person> everyone = concat(poolA, poolB);
+        ConflictGraph graph = ConflictGraph.compile(everyone, constraints);
+        int sizeA = poolA.size();
+        int[] orderA = fairOrder(poolA, poolB.size(), ledger, random);
+        int[] orderB = fairOrder(poolB, sizeA, ledger, random);
+        for (int i = 0; i < orderB.length; i++) {
+            orderB[i] += sizeA; // 池B 局部下标 → 冲突图下标
+        }
+
+        Map<Person, List<Person>> assignment = new LinkedHashMap<>();
+        assignment.putAll(assignDirection(everyone, ConstraintSolver.solveDirection(
+                graph, orderA, range(sizeA, everyone.size()), "A→B", random, false), sizeA >= orderB.length));
+        assignment.putAll(assignDirection(everyone, ConstraintSolver.solveDirection(
+                graph, orderB, range(0, sizeA), "B→A", random, false), orderB.length >= sizeA));
+        ledger.record(assignment);
         return assignment;
     }
 
@@ -81,12 +375,14 @@ public final class CodeReviewAssigner {
      * @param reviewers 候选审查人池
      * @param reviewees 被审查人池（结果中必须100%出现）
      * @param direction 标识方向（用于异常提示）
+     * @param random    随机源（固定种子时结果可复现）
      * @return Map<实际参与的审查人, 被分配的被审查人列表>
      */
     private static Map<Person, List<Person>> assignDirection(
             List<Person> reviewers,
             List<Person> reviewees,
-            String direction
+            String direction,
+            Random random
     ) {
         if (reviewees.isEmpty()) {
             return new LinkedHashMap<>();
@@ -100,13 +396,13 @@ public final class CodeReviewAssigner {
 
         // 深拷贝+打乱（避免修改原列表，保证随机性）
         List<Person> shuffledReviewees = new ArrayList<>(reviewees);
-        Collections.shuffle(shuffledReviewees);
+        Collections.shuffle(shuffledReviewees, random);
         Map<Person, List<Person>> assignment = new LinkedHashMap<>();
 
         if (reviewers.size() >= reviewees.size()) {
             // 大池审查小池：仅抽 |reviewees| 人，每人查1人（小池全员被查）
             List<Person> shuffledReviewers = new ArrayList<>(reviewers);
-            Collections.shuffle(shuffledReviewers);
+            Collections.shuffle(shuffledReviewers, random);
             List<Person> selectedReviewers = shuffledReviewers.subList(0, reviewees.size());
             for (int i = 0; i < selectedReviewers.size(); i++) {
                 assignment.put(
@@ -117,7 +413,7 @@ public final class CodeReviewAssigner {
         } else {
             // 小池审查大池：小池全员上，均衡分配（大池全员被查）
             List<Person> shuffledReviewers = new ArrayList<>(reviewers);
-            Collections.shuffle(shuffledReviewers);
+            Collections.shuffle(shuffledReviewers, random);
             for (int i = 0; i < shuffledReviewees.size(); i++) {
                 Person reviewer = shuffledReviewers.get(i % shuffledReviewers.size());
                 assignment.computeIfAbsent(reviewer, k -> new ArrayList<>())
@@ -127,6 +423,478 @@ public final class CodeReviewAssigner {
         return assignment;
     }
 
+    /**
+     * 公平分配方向：与 {@link #assignDirection(List, List, String, Random)} 相同的覆盖/均衡规则，
+     * 但先把累计负载最少的审查人选到队首（打乱后再选择，负载相同者随机入选）：
+     * - 大池审查小池：队首 |reviewees| 人入选
+     * - 小池审查大池：队首 |reviewees| % |reviewers| 人多分 1 项
+     */
+    private static Map<Person, List<Person>> assignDirectionFair(
+            List<Person> reviewers,
+            List<Person> reviewees,
+            ReviewLoadLedger ledger,
+            Random random
+    ) {
+        int[] order = fairOrder(reviewers, reviewees.size(), ledger, random);
+
+        List<Person> shuffledReviewees = new ArrayList<>(reviewees);
+        Collections.shuffle(shuffledReviewees, random);
+        Map<Person, List<Person>> assignment = new LinkedHashMap<>();
+        if (reviewers.size() >= reviewees.size()) {
+            for (int i = 0; i < reviewees.size(); i++) {
+                assignment.put(reviewers.get(order[i]), Collections.singletonList(shuffledReviewees.get(i)));
+            }
+        } else {
+            // 第 j 位审查人负责第 j, j+r, j+2r... 位被审查人：队首 (|reviewees| % r) 人恰好多 1 项
+            for (int i = 0; i < shuffledReviewees.size(); i++) {
+                assignment.computeIfAbsent(reviewers.get(order[i % order.length]), k -> new ArrayList<>())
+                        .add(shuffledReviewees.get(i));
+            }
+        }
+        return assignment;
+    }
+
+    /**
+     * 公平顺序：打乱后把累计负载最少的 favoured 人选到队首（大池抽样时为 |reviewees|，否则为 |reviewees| % r）
+     *
+     * @return reviewers 的下标排列
+     */
+    private static int[] fairOrder(List<Person> reviewers, int revieweeCount, ReviewLoadLedger ledger,
+                                   Random random) {
+        int[] order = range(0, reviewers.size());
+        shuffle(order, random);
+        int[] load = new int[reviewers.size()];
+        for (int i = 0; i < load.length; i++) {
+            load[i] = ledger.countOf(reviewers.get(i).getEmployeeId());
+        }
+        int favoured = reviewers.size() >= revieweeCount
+                ? revieweeCount
+                : revieweeCount % reviewers.size();
+        selectLeastLoaded(order, load, favoured, random);
+        return order;
+    }
+
+    /**
+     * 部分选择（三路划分快速选择，期望 O(n)）：使 order 前 k 位为负载最小的 k 人，前后两段内部顺序不保证
+     * 三路划分保证大量负载相同（如首轮全为 0）时不退化
+     *
+     * @param order  候选下标（原地重排）
+     * @param load   按候选下标取负载
+     * @param k      需选出的人数
+     * @param random 随机源（选取枢轴；固定种子时结果可复现）
+     */
+    static void selectLeastLoaded(int[] order, int[] load, int k, Random random) {
+        int lo = 0;
+        int hi = order.length - 1;
+        while (lo < hi && k > lo && k <= hi) {
+            int pivot = load[order[lo + random.nextInt(hi - lo + 1)]];
+            // 划分为 [lo, lt) < pivot，[lt, gt] == pivot，(gt, hi] > pivot
+            int lt = lo, i = lo, gt = hi;
+            while (i <= gt) {
+                int value = load[order[i]];
+                if (value < pivot) {
+                    swap(order, lt++, i++);
+                } else if (value > pivot) {
+                    swap(order, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            if (k < lt) {
+                hi = lt - 1;
+            } else if (k > gt + 1) {
+                lo = gt + 1;
+            } else {
+                return; // 分界落在等值段内：前 k 位已是最小的 k 个
+            }
+        }
+    }
+
+    private static void swap(int[] values, int i, int j) {
+        int tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+    }
+
+    /**
+     * 约束分配方向：把求解得到的配对转为 Map，结果结构与无约束版本一致（大池抽样时每人1项）
+     *
+     * @param everyone 冲突图下标 → 人员
+     * @param pairs    {@link ConstraintSolver#solveDirection} 的结果
+     * @param sampling 是否为大池抽样（审查人数 ≥ 被审查人数）
+     */
+    private static Map<Person, List<Person>> assignDirection(
+            List<Person> everyone,
+            int[][] pairs,
+            boolean sampling
+    ) {
+        int[] slot = pairs[0];
+        int[] targets = pairs[1];
+        Map<Person, List<Person>> assignment = new LinkedHashMap<>();
+        if (sampling) {
+            for (int k = 0; k < slot.length; k++) {
+                assignment.put(everyone.get(slot[k]), Collections.singletonList(everyone.get(targets[k])));
+            }
+        } else {
+            for (int k = 0; k < slot.length; k++) {
+                assignment.computeIfAbsent(everyone.get(slot[k]), p -> new ArrayList<>())
+                        .add(everyone.get(targets[k]));
+            }
+        }
+        return assignment;
+    }
+
+    /**
+     * 把求解得到的配对还原为排列形式：第 j 位审查人负责第 j, j+r, j+2r... 位被审查人
+     * 负载多 1 项的审查人排在前面，大池抽样时未入选的审查人排在末尾，与无约束版本的布局规则一致
+     *
+     * @param pairs     {@link ConstraintSolver#solveDirection} 的结果
+     * @param reviewers 该方向全部审查人下标
+     * @param size      冲突图人数
+     * @return {审查人排列（长度 r）, 被审查人排列（长度 n）}
+     */
+    private static int[][] arrange(int[][] pairs, int[] reviewers, int size) {
+        int[] slot = pairs[0];
+        int[] targets = pairs[1];
+        int n = targets.length;
+        int r = reviewers.length;
+        int ceil = (n + r - 1) / r;
+        int[] load = new int[size];
+        for (int reviewer : slot) {
+            load[reviewer]++;
+        }
+        int[] reviewerOrder = new int[r];
+        int[] position = new int[size];
+        int j = 0;
+        for (int reviewer : reviewers) {
+            if (load[reviewer] == ceil) {
+                position[reviewer] = j;
+                reviewerOrder[j++] = reviewer;
+            }
+        }
+        for (int reviewer : reviewers) {
+            if (load[reviewer] != ceil) {
+                position[reviewer] = j;
+                reviewerOrder[j++] = reviewer;
+            }
+        }
+        // 复用 load 作为各审查人已放置的项数
+        Arrays.fill(load, 0);
+        int[] revieweeOrder = new int[n];
+        for (int k = 0; k < n; k++) {
+            revieweeOrder[position[slot[k]] + load[slot[k]]++ * r] = targets[k];
+        }
+        return new int[][]{reviewerOrder, revieweeOrder};
+    }
+
+    // ==================== 惰性视图分配 ====================
+
+    /**
+     * 单池循环分配（惰性视图）：规则同 {@link #assignSinglePool(List)}，只保存打乱后的排列
+     *
+     * @param people 人员池（至少2人）
+     * @return 可按工号 O(1) 查询的分配视图
+     * @throws IllegalArgumentException 池子为空/不足2人/含重复工号
+     */
+    public static AssignmentView assignSinglePoolView(List<Person> people) {
+        validatePeople(people, "单池");
+        if (people.size() < 2) {
+            throw new IllegalArgumentException("单池模式至少需要2人");
+        }
+
+        int n = people.size();
+        int[] order = range(0, n);
+        shuffle(order); // 打乱避免固定顺序
+        return new AssignmentView(people.toArray(new Person[0]), true, order, order,
+                new int[]{0, n}, new int[]{0, n});
+    }
+
+    /**
+     * 双池智能分配（惰性视图）：规则同 {@link #assignDualPool(List, List)}，只保存各方向打乱后的排列与偏移
+     *
+     * @param poolA 池A（如前端组）
+     * @param poolB 池B（如后端组）
+     * @return 可按工号 O(1) 查询的分配视图
+     * @throws IllegalArgumentException 池子为空/含重复工号/双池存在交集
+     */
+    public static AssignmentView assignDualPoolView(List<Person> poolA, List<Person> poolB) {
+        validatePeople(poolA, "poolA");
+        validatePeople(poolB, "poolB");
+        validateNoOverlap(poolA, poolB);
+
+        int sizeA = poolA.size();
+        int total = sizeA + poolB.size();
+        Person[] everyone = new Person[total];
+        for (int i = 0; i < sizeA; i++) everyone[i] = poolA.get(i);
+        for (int i = sizeA; i < total; i++) everyone[i] = poolB.get(i - sizeA);
+
+        // 方向0：A审查B；方向1：B审查A（每个方向独立打乱，避免两方向配对相关）
+        int[] reviewerOrder = new int[total];
+        int[] revieweeOrder = new int[total];
+        fillShuffled(reviewerOrder, 0, 0, sizeA);
+        fillShuffled(reviewerOrder, sizeA, sizeA, total);
+        fillShuffled(revieweeOrder, 0, sizeA, total);
+        fillShuffled(revieweeOrder, total - sizeA, 0, sizeA);
+        return new AssignmentView(everyone, false, reviewerOrder, revieweeOrder,
+                new int[]{0, sizeA, total}, new int[]{0, total - sizeA, total});
+    }
+
+    /**
+     * 单池约束分配（惰性视图）：规则同 {@link #assignSinglePool(List, ReviewConstraints)}
+     *
+     * @param people      人员池（至少2人）
+     * @param constraints 约束（为空时等同 {@link #assignSinglePoolView(List)}）
+     * @return 可按工号 O(1) 查询的分配视图
+     * @throws IllegalArgumentException 池子非法 / 约束无法满足
+     */
+    public static AssignmentView assignSinglePoolView(List<Person> people, ReviewConstraints constraints) {
+        if (constraints == null || constraints.isEmpty()) {
+            return assignSinglePoolView(people);
+        }
+        validatePeople(people, "单池");
+        if (people.size() < 2) {
+            throw new IllegalArgumentException("单池模式至少需要2人");
+        }
+
+        int n = people.size();
+        int[] order = ConstraintSolver.solveRing(ConflictGraph.compile(people, constraints), ThreadLocalRandom.current());
+        return new AssignmentView(people.toArray(new Person[0]), true, order, order,
+                new int[]{0, n}, new int[]{0, n});
+    }
+
+    /**
+     * 双池约束分配（惰性视图）：规则同 {@link #assignDualPool(List, List, ReviewConstraints)}
+     *
+     * @param poolA       池A（如前端组）
+     * @param poolB       池B（如后端组）
+     * @param constraints 约束（为空时等同 {@link #assignDualPoolView(List, List)}）
+     * @return 可按工号 O(1) 查询的分配视图
+     * @throws IllegalArgumentException 池子非法 / 约束无法满足
+     */
+    public static AssignmentView assignDualPoolView(List<Person> poolA, List<Person> poolB,
+                                                    ReviewConstraints constraints) {
+        if (constraints == null || constraints.isEmpty()) {
+            return assignDualPoolView(poolA, poolB);
+        }
+        validatePeople(poolA, "poolA");
+        validatePeople(poolB, "poolB");
+        validateNoOverlap(poolA, poolB);
+
+        List<Person> everyone = concat(poolA, poolB);
+        ConflictGraph graph = ConflictGraph.compile(everyone, constraints);
+        int sizeA = poolA.size();
+        int total = everyone.size();
+        int[] indexA = range(0, sizeA);
+        int[] indexB = range(sizeA, total);
+        Random random = ThreadLocalRandom.current();
+        int[][] ab = arrange(ConstraintSolver.solveDirection(graph, indexA, indexB, "A→B", random), indexA, total);
+        int[][] ba = arrange(ConstraintSolver.solveDirection(graph, indexB, indexA, "B→A", random), indexB, total);
+
+        int[] reviewerOrder = new int[total];
+        int[] revieweeOrder = new int[total];
+        System.arraycopy(ab[0], 0, reviewerOrder, 0, sizeA);
+        System.arraycopy(ba[0], 0, reviewerOrder, sizeA, total - sizeA);
+        System.arraycopy(ab[1], 0, revieweeOrder, 0, total - sizeA);
+        System.arraycopy(ba[1], 0, revieweeOrder, total - sizeA, sizeA);
+        return new AssignmentView(everyone.toArray(new Person[0]), false, reviewerOrder, revieweeOrder,
+                new int[]{0, sizeA, total}, new int[]{0, total - sizeA, total});
+    }
+
+    /**
+     * 在 target[at, at + (to - from)) 写入 [from, to) 的随机排列（inside-out Fisher–Yates）
+     */
+    private static void fillShuffled(int[] target, int at, int from, int to) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < to - from; i++) {
+            int j = random.nextInt(i + 1);
+            target[at + i] = target[at + j];
+            target[at + j] = from + i;
+        }
+    }
+
+    // ==================== 堆外名册分配 ====================
+
+    /**
+     * 单池循环分配（堆外名册版）：规则同 {@link #assignSinglePool(List)}
+     *
+     * @param people 堆外名册（至少2人，工号在写入时已查重）
+     * @return 下标形式的分配结果
+     * @throws IllegalArgumentException 名册为空/不足2人
+     */
+    public static RosterAssignment assignSinglePool(OffHeapRoster people) {
+        validateRoster(people, "单池");
+        if (people.size() < 2) {
+            throw new IllegalArgumentException("单池模式至少需要2人");
+        }
+
+        int n = people.size();
+        int[] shuffled = range(0, n);
+        shuffle(shuffled); // 打乱避免固定顺序
+        return new RosterAssignment(people, null, shuffled, range(0, n + 1), ringSuccessors(shuffled));
+    }
+
+    /**
+     * 单池约束分配（堆外名册版）：规则同 {@link #assignSinglePool(List, ReviewConstraints)}
+     *
+     * @param people      堆外名册（至少2人）
+     * @param constraints 约束（为空时等同 {@link #assignSinglePool(OffHeapRoster)}）
+     * @return 下标形式的分配结果
+     * @throws IllegalArgumentException 名册非法 / 约束无法满足
+     */
+    public static RosterAssignment assignSinglePool(OffHeapRoster people, ReviewConstraints constraints) {
+        if (constraints == null || constraints.isEmpty()) {
+            return assignSinglePool(people);
+        }
+        validateRoster(people, "单池");
+        if (people.size() < 2) {
+            throw new IllegalArgumentException("单池模式至少需要2人");
+        }
+
+        int n = people.size();
+        int[] order = ConstraintSolver.solveRing(ConflictGraph.compile(people, null, constraints),
+                ThreadLocalRandom.current());
+        return new RosterAssignment(people, null, order, range(0, n + 1), ringSuccessors(order));
+    }
+
+    /**
+     * 双池智能分配（堆外名册版）：规则同 {@link #assignDualPool(List, List)}
+     *
+     * @param poolA 池A 名册
+     * @param poolB 池B 名册
+     * @return 下标形式的分配结果（池B 下标整体偏移 |A|）
+     * @throws IllegalArgumentException 名册为空/双池存在交集
+     */
+    public static RosterAssignment assignDualPool(OffHeapRoster poolA, OffHeapRoster poolB) {
+        validateRoster(poolA, "poolA");
+        validateRoster(poolB, "poolB");
+        validateNoOverlap(poolA, poolB);
+
+        int sizeA = poolA.size();
+        int total = sizeA + poolB.size();
+        int rows = 2 * Math.min(sizeA, poolB.size());
+        int[] rowReviewer = new int[rows];
+        int[] rowOffsets = new int[rows + 1];
+        int[] reviewees = new int[total];
+        // A审查B：B池全员必须被查
+        int[] reviewersA = range(0, sizeA);
+        int[] revieweesB = range(sizeA, total);
+        shuffle(reviewersA);
+        shuffle(revieweesB);
+        int row = layoutDirection(reviewersA, revieweesB, rowReviewer, rowOffsets, reviewees, 0);
+        // B审查A：A池全员必须被查
+        int[] reviewersB = range(sizeA, total);
+        int[] revieweesA = range(0, sizeA);
+        shuffle(reviewersB);
+        shuffle(revieweesA);
+        layoutDirection(reviewersB, revieweesA, rowReviewer, rowOffsets, reviewees, row);
+        return new RosterAssignment(poolA, poolB, rowReviewer, rowOffsets, reviewees);
+    }
+
+    /**
+     * 双池约束分配（堆外名册版）：规则同 {@link #assignDualPool(List, List, ReviewConstraints)}
+     * 冲突图直接按名册哈希索引定位工号，全程不创建 Person
+     *
+     * @param poolA       池A 名册
+     * @param poolB       池B 名册
+     * @param constraints 约束（为空时等同 {@link #assignDualPool(OffHeapRoster, OffHeapRoster)}）
+     * @return 下标形式的分配结果（池B 下标整体偏移 |A|）
+     * @throws IllegalArgumentException 名册非法 / 约束无法满足
+     */
+    public static RosterAssignment assignDualPool(OffHeapRoster poolA, OffHeapRoster poolB,
+                                                  ReviewConstraints constraints) {
+        if (constraints == null || constraints.isEmpty()) {
+            return assignDualPool(poolA, poolB);
+        }
+        validateRoster(poolA, "poolA");
+        validateRoster(poolB, "poolB");
+        validateNoOverlap(poolA, poolB);
+
+        ConflictGraph graph = ConflictGraph.compile(poolA, poolB, constraints);
+        int sizeA = poolA.size();
+        int total = sizeA + poolB.size();
+        int[] indexA = range(0, sizeA);
+        int[] indexB = range(sizeA, total);
+        Random random = ThreadLocalRandom.current();
+        int[][] ab = arrange(ConstraintSolver.solveDirection(graph, indexA, indexB, "A→B", random), indexA, total);
+        int[][] ba = arrange(ConstraintSolver.solveDirection(graph, indexB, indexA, "B→A", random), indexB, total);
+
+        int rows = 2 * Math.min(sizeA, poolB.size());
+        int[] rowReviewer = new int[rows];
+        int[] rowOffsets = new int[rows + 1];
+        int[] reviewees = new int[total];
+        int row = layoutDirection(ab[0], ab[1], rowReviewer, rowOffsets, reviewees, 0);
+        layoutDirection(ba[0], ba[1], rowReviewer, rowOffsets, reviewees, row);
+        return new RosterAssignment(poolA, poolB, rowReviewer, rowOffsets, reviewees);
+    }
+
+    /**
+     * 单向布局（下标版）：按已打乱/已求解的排列写入 CSR，规则同 {@link #assignDirection(List, List, String, Random)}
+     *
+     * @return 写入后的审查行数
+     */
+    private static int layoutDirection(int[] reviewers, int[] reviewees,
+                                       int[] rowReviewer, int[] rowOffsets, int[] targets, int row) {
+        int edge = rowOffsets[row];
+        if (reviewers.length >= reviewees.length) {
+            // 大池审查小池：仅抽 |reviewees| 人，每人查1人
+            for (int i = 0; i < reviewees.length; i++) {
+                rowReviewer[row] = reviewers[i];
+                targets[edge++] = reviewees[i];
+                rowOffsets[++row] = edge;
+            }
+        } else {
+            // 小池审查大池：第 j 位审查人负责第 j, j+r, j+2r... 位被审查人
+            for (int j = 0; j < reviewers.length; j++) {
+                rowReviewer[row] = reviewers[j];
+                for (int k = j; k < reviewees.length; k += reviewers.length) {
+                    targets[edge++] = reviewees[k];
+                }
+                rowOffsets[++row] = edge;
+            }
+        }
+        return row;
+    }
+
+    private static void shuffle(int[] values) {
+        shuffle(values, ThreadLocalRandom.current());
+    }
+
+    private static void shuffle(int[] values, Random random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+    }
+
+    /**
+     * 环形分配：order[i] 审查 order[(i + 1) % n]
+     */
+    private static int[] ringSuccessors(int[] order) {
+        int n = order.length;
+        int[] reviewees = new int[n];
+        for (int i = 0; i < n; i++) {
+            reviewees[i] = order[(i + 1) % n];
+        }
+        return reviewees;
+    }
+
+    private static List<Person> concat(List<Person> poolA, List<Person> poolB) {
+        List<Person> everyone = new ArrayList<>(poolA.size() + poolB.size());
+        everyone.addAll(poolA);
+        everyone.addAll(poolB);
+        return everyone;
+    }
+
+    private static int[] range(int from, int to) {
+        int[] values = new int[to - from];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = from + i;
+        }
+        return values;
+    }
+
     // ==================== 校验工具 ====================
 
     /**
@@ -153,6 +921,35 @@ public final class CodeReviewAssigner {
         }
     }
 
+    /**
+     * 校验堆外名册基础合法性（重复工号已在写入名册时拦截）
+     */
+    private static void validateRoster(OffHeapRoster roster, String poolName) {
+        if (roster == null) {
+            throw new IllegalArgumentException(poolName + " 不能为 null");
+        }
+        if (roster.size() == 0) {
+            throw new IllegalArgumentException(poolName + " 不能为空");
+        }
+    }
+
+    /**
+     * 校验双池名册无人员交集（直接比较工号字节）
+     */
+    private static void validateNoOverlap(OffHeapRoster poolA, OffHeapRoster poolB) {
+        List<String> overlapIds = new ArrayList<>();
+        for (int j = 0; j < poolB.size(); j++) {
+            if (poolA.indexOf(poolB, j) >= 0) {
+                overlapIds.add(poolB.employeeIdAt(j));
+            }
+        }
+        if (!overlapIds.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "双池存在交集人员（工号）: " + String.join(", ", overlapIds)
+            );
+        }
+    }
+
     /**
      * 校验双池无人员交集（基于工号）
      */
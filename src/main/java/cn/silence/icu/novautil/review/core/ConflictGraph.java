@@ -0,0 +1,272 @@
+package cn.silence.icu.novautil.review.core;
+
+import cn.silence.icu.novautil.review.model.OffHeapRoster;
+import cn.silence.icu.novautil.review.model.Person;
+import cn.silence.icu.novautil.review.model.ReviewConstraints;
+
+import java.util.*;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * 约束编译结果：稀疏冲突图（人员以下标表示，全部为基本类型数组）
+ * 1. 排除边：审查人 → 被审查人（CSR，每行升序，二分查找）
+ * 2. 项目分组：人员 → 所属项目（CSR，每行升序，同组即冲突，避免展开成 k² 条边）
+ * 3. 固定配对：被审查人 → 指定审查人
+ */
+final class ConflictGraph {
+
+    private final int size;
+    private final IntFunction<String> employeeIdOf;
+    private final int[] edgeOffsets;
+    private final int[] edgeTargets;
+    private final int[] inDegree;
+    private final int[] groupOffsets;
+    private final int[] groupIds;
+    private final int[] groupSizes;
+    private final int[] pinnedReviewerOf;
+    private final int[] pinFrom;
+    private final int[] pinTo;
+
+    private ConflictGraph(int size, IntFunction<String> employeeIdOf,
+                          int[] edgeOffsets, int[] edgeTargets, int[] inDegree,
+                          int[] groupOffsets, int[] groupIds, int[] groupSizes,
+                          int[] pinnedReviewerOf, int[] pinFrom, int[] pinTo) {
+        this.size = size;
+        this.employeeIdOf = employeeIdOf;
+        this.edgeOffsets = edgeOffsets;
+        this.edgeTargets = edgeTargets;
+        this.inDegree = inDegree;
+        this.groupOffsets = groupOffsets;
+        this.groupIds = groupIds;
+        this.groupSizes = groupSizes;
+        this.pinnedReviewerOf = pinnedReviewerOf;
+        this.pinFrom = pinFrom;
+        this.pinTo = pinTo;
+    }
+
+    /**
+     * 将约束编译为冲突图（人员下标即 people 中的位置）
+     *
+     * @throws IllegalArgumentException 固定配对引用未知工号、自查、重复或与排除规则冲突
+     */
+    static ConflictGraph compile(List<Person> people, ReviewConstraints constraints) {
+        int n = people.size();
+        Map<String, Integer> index = new HashMap<>(n * 4 / 3 + 1);
+        for (int i = 0; i < n; i++) {
+            index.put(people.get(i).getEmployeeId(), i);
+        }
+        return compile(n, id -> index.getOrDefault(id, -1), i -> people.get(i).getEmployeeId(), constraints);
+    }
+
+    /**
+     * 将约束编译为冲突图（堆外名册版：单池时 poolB 为 null；双池时池B 下标整体偏移 |A|）
+     * 按工号定位直接走名册自带的哈希索引，不创建 Person
+     */
+    static ConflictGraph compile(OffHeapRoster poolA, OffHeapRoster poolB, ReviewConstraints constraints) {
+        int sizeA = poolA.size();
+        int n = sizeA + (poolB == null ? 0 : poolB.size());
+        return compile(n, id -> {
+            int i = poolA.indexOf(id);
+            if (i >= 0 || poolB == null) return i;
+            int j = poolB.indexOf(id);
+            return j < 0 ? -1 : sizeA + j;
+        }, i -> i < sizeA ? poolA.employeeIdAt(i) : poolB.employeeIdAt(i - sizeA), constraints);
+    }
+
+    /**
+     * 编译核心：上级/项目规则中不在人员池内的工号直接忽略；固定配对必须引用池内工号
+     *
+     * @param n            人数（下标范围 [0, n)）
+     * @param indexOf      工号 → 下标（不存在时为 -1）
+     * @param employeeIdOf 下标 → 工号（用于异常提示）
+     */
+    private static ConflictGraph compile(int n, ToIntFunction<String> indexOf, IntFunction<String> employeeIdOf,
+                                         ReviewConstraints constraints) {
+        ToIntFunction<String> index = id -> id == null ? -1 : indexOf.applyAsInt(id.trim());
+
+        // 排除边：下属不得审查直属上级（编码为 long 后排序去重）
+        long[] edges = new long[16];
+        int edgeCount = 0;
+        for (Map.Entry<String, String> entry : constraints.getManagers().entrySet()) {
+            int reviewer = index.applyAsInt(entry.getKey());
+            int manager = index.applyAsInt(entry.getValue());
+            if (reviewer < 0 || manager < 0 || reviewer == manager) {
+                continue;
+            }
+            if (edgeCount == edges.length) {
+                edges = Arrays.copyOf(edges, edgeCount * 2);
+            }
+            edges[edgeCount++] = ((long) reviewer << 32) | manager;
+        }
+        Arrays.sort(edges, 0, edgeCount);
+        int[] edgeOffsets = new int[n + 1];
+        int[] edgeTargets = new int[edgeCount];
+        int[] inDegree = new int[n];
+        int unique = 0;
+        for (int i = 0; i < edgeCount; i++) {
+            if (i > 0 && edges[i] == edges[i - 1]) continue;
+            int reviewer = (int) (edges[i] >>> 32);
+            int reviewee = (int) edges[i];
+            edgeTargets[unique++] = reviewee;
+            edgeOffsets[reviewer + 1]++;
+            inDegree[reviewee]++;
+        }
+        for (int i = 0; i < n; i++) {
+            edgeOffsets[i + 1] += edgeOffsets[i];
+        }
+        edgeTargets = Arrays.copyOf(edgeTargets, unique);
+
+        // 项目分组：人员 → 项目编号（同一项目内任意两人互斥）
+        int[] groupCount = new int[n + 1];
+        List<int[]> members = new ArrayList<>();
+        for (List<String> ids : constraints.getProjects().values()) {
+            if (ids == null) continue;
+            int[] group = ids.stream()
+                    .mapToInt(index)
+                    .filter(i -> i >= 0)
+                    .distinct()
+                    .toArray();
+            if (group.length < 2) continue;
+            members.add(group);
+            for (int p : group) {
+                groupCount[p + 1]++;
+            }
+        }
+        int[] groupOffsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            groupOffsets[i + 1] = groupOffsets[i] + groupCount[i + 1];
+        }
+        int[] groupIds = new int[groupOffsets[n]];
+        int[] groupSizes = new int[members.size()];
+        int[] cursor = Arrays.copyOf(groupOffsets, n);
+        for (int g = 0; g < members.size(); g++) {
+            groupSizes[g] = members.get(g).length;
+            for (int p : members.get(g)) {
+                groupIds[cursor[p]++] = g; // 项目编号递增写入，天然升序
+            }
+        }
+
+        // 固定配对
+        List<ReviewConstraints.PinnedPair> pinned = constraints.getPinned();
+        int[] pinnedReviewerOf = new int[n];
+        Arrays.fill(pinnedReviewerOf, -1);
+        int[] pinFrom = new int[pinned.size()];
+        int[] pinTo = new int[pinned.size()];
+        ConflictGraph graph = new ConflictGraph(n, employeeIdOf, edgeOffsets, edgeTargets, inDegree,
+                groupOffsets, groupIds, groupSizes, pinnedReviewerOf, pinFrom, pinTo);
+        for (int i = 0; i < pinned.size(); i++) {
+            ReviewConstraints.PinnedPair pair = pinned.get(i);
+            int reviewer = index.applyAsInt(pair.getReviewer());
+            int reviewee = index.applyAsInt(pair.getReviewee());
+            if (reviewer < 0 || reviewee < 0) {
+                throw new IllegalArgumentException("固定配对引用了不在人员池中的工号: " + pair);
+            }
+            if (reviewer == reviewee) {
+                throw new IllegalArgumentException("固定配对不能自查: " + pair);
+            }
+            if (pinnedReviewerOf[reviewee] >= 0) {
+                throw new IllegalArgumentException(
+                        String.format("被审查人 %s 存在多个固定配对", pair.getReviewee()));
+            }
+            if (graph.forbids(reviewer, reviewee)) {
+                throw new IllegalArgumentException("固定配对与排除规则冲突: " + pair);
+            }
+            pinnedReviewerOf[reviewee] = reviewer;
+            pinFrom[i] = reviewer;
+            pinTo[i] = reviewee;
+        }
+        return graph;
+    }
+
+    /**
+     * reviewer 是否不允许审查 reviewee（含自查）
+     */
+    boolean forbids(int reviewer, int reviewee) {
+        if (reviewer == reviewee) {
+            return true;
+        }
+        if (Arrays.binarySearch(edgeTargets, edgeOffsets[reviewer], edgeOffsets[reviewer + 1], reviewee) >= 0) {
+            return true;
+        }
+        // 有序项目列表求交
+        int i = groupOffsets[reviewer], iEnd = groupOffsets[reviewer + 1];
+        int j = groupOffsets[reviewee], jEnd = groupOffsets[reviewee + 1];
+        while (i < iEnd && j < jEnd) {
+            if (groupIds[i] == groupIds[j]) return true;
+            if (groupIds[i] < groupIds[j]) i++;
+            else j++;
+        }
+        return false;
+    }
+
+    /**
+     * 作为审查人被排除的对象数上界（项目重叠时会重复计数）
+     */
+    int outConflictBound(int reviewer) {
+        return edgeOffsets[reviewer + 1] - edgeOffsets[reviewer] + groupConflictBound(reviewer);
+    }
+
+    /**
+     * 作为被审查人被排除的审查人数上界（项目重叠时会重复计数）
+     */
+    int inConflictBound(int reviewee) {
+        return inDegree[reviewee] + groupConflictBound(reviewee);
+    }
+
+    private int groupConflictBound(int p) {
+        int bound = 0;
+        for (int i = groupOffsets[p]; i < groupOffsets[p + 1]; i++) {
+            bound += groupSizes[groupIds[i]] - 1;
+        }
+        return bound;
+    }
+
+    /**
+     * 人员所属项目中人数最多的一个（无项目时为 -1）
+     */
+    int largestGroupOf(int p) {
+        int largest = -1;
+        for (int i = groupOffsets[p]; i < groupOffsets[p + 1]; i++) {
+            if (largest < 0 || groupSizes[groupIds[i]] > groupSizes[largest]) {
+                largest = groupIds[i];
+            }
+        }
+        return largest;
+    }
+
+    int groupCount() {
+        return groupSizes.length;
+    }
+
+    int groupSize(int group) {
+        return groupSizes[group];
+    }
+
+    int pinnedReviewerOf(int reviewee) {
+        return pinnedReviewerOf[reviewee];
+    }
+
+    int pinCount() {
+        return pinFrom.length;
+    }
+
+    int pinReviewer(int pin) {
+        return pinFrom[pin];
+    }
+
+    int pinReviewee(int pin) {
+        return pinTo[pin];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 下标对应的工号（仅用于异常提示）
+     */
+    String employeeId(int index) {
+        return employeeIdOf.apply(index);
+    }
+}
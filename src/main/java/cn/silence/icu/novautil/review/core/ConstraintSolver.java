@@ -0,0 +1,648 @@
+package cn.silence.icu.novautil.review.core;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 约束求解：在冲突图上做随机修复（min-conflicts），未收敛时回退到精确算法
+ * 1. 初始解沿用无约束算法（打乱 + 环形 / 均衡分配），约束稀疏时绝大多数位置已合法
+ * 2. 只对违规位置做局部交换，交换不改变负载，因此负载差≤1、100%覆盖始终成立
+ * 3. 修复步数有上限（线性于人数）；单向分配超限后转为带负载上下限的增广路匹配（完备），
+ *    单池环先按项目交错排布再修复，未收敛时重新排布重试，小规模时回退到带剪枝的回溯
+ * 4. 必要条件先行：如单池中任一项目超过半数必然无法成环，直接拒绝而不耗尽修复步数
+ * 全部随机性来自调用方传入的随机源，固定种子时结果可复现
+ */
+final class ConstraintSolver {
+
+    // 每个违规位置尝试改进交换的次数
+    private static final int SWAP_TRIES = 16;
+    // 规模不超过该值时，随机修复失败后用回溯穷举给出确定结论
+    private static final int BACKTRACK_LIMIT = 10;
+    // 单池环随机修复未收敛时重新交错排布的次数：至少 RING_ATTEMPTS 次，小规模时按总步数预算增加（至多 MAX_RING_ATTEMPTS 次）
+    private static final int RING_ATTEMPTS = 4;
+    private static final int MAX_RING_ATTEMPTS = 32;
+    private static final long RING_STEP_BUDGET = 1L << 22;
+
+    private ConstraintSolver() {
+        // 工具类禁止实例化
+    }
+
+    // ==================== 单池环形 ====================
+
+    /**
+     * 求解满足约束的审查环
+     *
+     * @param graph  冲突图（下标覆盖全部人员）
+     * @param random 随机源
+     * @return 人员下标顺序，order[i] 审查 order[(i+1) % n]
+     * @throws IllegalArgumentException 约束无法满足
+     */
+    static int[] solveRing(ConflictGraph graph, Random random) {
+        int n = graph.size();
+
+        // 必要条件：同项目成员两两不能相邻，n 人环上至多容纳 ⌊n/2⌋ 个互不相邻的位置
+        for (int g = 0; g < graph.groupCount(); g++) {
+            if (graph.groupSize(g) > n / 2) {
+                throw new IllegalArgumentException(String.format(
+                        "约束无法满足：某项目 %d 人超过单池总人数 %d 的一半，审查环中必有同项目成员相邻",
+                        graph.groupSize(g), n));
+            }
+        }
+
+        // 固定配对串成链段：段内顺序固定，段与段之间自由排列
+        int[] next = new int[n];
+        int[] prev = new int[n];
+        Arrays.fill(next, -1);
+        Arrays.fill(prev, -1);
+        for (int pin = 0; pin < graph.pinCount(); pin++) {
+            int reviewer = graph.pinReviewer(pin);
+            int reviewee = graph.pinReviewee(pin);
+            if (next[reviewer] >= 0) {
+                throw new IllegalArgumentException(String.format(
+                        "单池模式每人只审查1人，审查人 %s 存在多个固定配对", graph.employeeId(reviewer)));
+            }
+            next[reviewer] = reviewee;
+            prev[reviewee] = reviewer;
+        }
+        int[] segHead = new int[n];
+        int[] segTail = new int[n];
+        int m = 0;
+        int chained = 0;
+        for (int p = 0; p < n; p++) {
+            if (prev[p] >= 0) continue;
+            int tail = p;
+            chained++;
+            while (next[tail] >= 0) {
+                tail = next[tail];
+                chained++;
+            }
+            segHead[m] = p;
+            segTail[m++] = tail;
+        }
+        if (chained < n) {
+            // 存在不经过链头的人员 → 固定配对自成闭环
+            if (m == 0 && isSingleCycle(next)) {
+                return walk(next, 0, n);
+            }
+            throw new IllegalArgumentException("固定配对形成闭环，无法覆盖全部人员");
+        }
+
+        // 快速判定：某段尾无人可查 / 某段头无人可被查
+        for (int s = 0; s < m; s++) {
+            if (graph.outConflictBound(segTail[s]) >= m - 1 && !hasHead(graph, segTail[s], segHead, m, s)) {
+                throw new IllegalArgumentException(String.format(
+                        "约束无法满足：%s 没有可审查的对象", graph.employeeId(segTail[s])));
+            }
+            if (graph.inConflictBound(segHead[s]) >= m - 1 && !hasTail(graph, segHead[s], segTail, m, s)) {
+                throw new IllegalArgumentException(String.format(
+                        "约束无法满足：%s 没有可用的审查人", graph.employeeId(segHead[s])));
+            }
+        }
+
+        // 紧约束（如某项目恰占一半）下单次修复约半数失败，小规模时多试几次的代价可以忽略
+        int attempts = (int) Math.max(RING_ATTEMPTS, Math.min(MAX_RING_ATTEMPTS, RING_STEP_BUDGET / repairBudget(m)));
+        int[] order = null;
+        boolean solved = false;
+        for (int attempt = 0; attempt < attempts && !solved; attempt++) {
+            order = interleavedOrder(graph, segHead, segTail, m, random);
+            solved = repairRing(graph, order, segHead, segTail, random);
+        }
+        if (!solved && (m > BACKTRACK_LIMIT || !backtrackRing(graph, order, segHead, segTail))) {
+            throw new IllegalArgumentException("约束无法满足：单池审查环无法在排除规则下闭合");
+        }
+
+        int[] result = new int[n];
+        int k = 0;
+        for (int i = 0; i < m; i++) {
+            for (int p = segHead[order[i]]; p >= 0; p = next[p]) {
+                result[k++] = p;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 初始排列：按段所属的最大项目分桶，大桶在前依次填入偶数位、再填奇数位（桶内随机）
+     * 任一项目的段不超过一半时同项目的段互不相邻，紧约束下修复只需处理上级规则；未分组的段排在最后
+     */
+    private static int[] interleavedOrder(ConflictGraph graph, int[] segHead, int[] segTail, int m,
+                                          Random random) {
+        int[] key = new int[m];
+        int[] bucketSize = new int[graph.groupCount()];
+        for (int s = 0; s < m; s++) {
+            key[s] = graph.largestGroupOf(segTail[s]);
+            if (key[s] < 0) key[s] = graph.largestGroupOf(segHead[s]);
+            if (key[s] >= 0) bucketSize[key[s]]++;
+        }
+        int[] sorted = shuffledRange(m, random);
+        AssignmentExporter.sortRows(sorted, (a, b) -> {
+            int sizeA = key[a] < 0 ? 0 : bucketSize[key[a]];
+            int sizeB = key[b] < 0 ? 0 : bucketSize[key[b]];
+            if (sizeA != sizeB) return Integer.compare(sizeB, sizeA);
+            return Integer.compare(key[a], key[b]);
+        });
+        int[] order = new int[m];
+        int k = 0;
+        for (int i = 0; i < m; i += 2) order[i] = sorted[k++];
+        for (int i = 1; i < m; i += 2) order[i] = sorted[k++];
+        return order;
+    }
+
+    /**
+     * 单次随机修复的交换步数上限
+     */
+    private static long repairBudget(int m) {
+        return 32L * m + 1024;
+    }
+
+    private static boolean repairRing(ConflictGraph graph, int[] order, int[] segHead, int[] segTail,
+                                      Random random) {
+        int m = order.length;
+        IntStack pending = new IntStack(m);
+        for (int i = 0; i < m; i++) {
+            if (badJunction(graph, order, segHead, segTail, i)) pending.push(i);
+        }
+        long budget = repairBudget(m);
+        int[] affected = new int[4];
+        while (!pending.isEmpty()) {
+            int i = pending.pop();
+            if (!badJunction(graph, order, segHead, segTail, i)) continue;
+            if (budget-- == 0 || m < 3) return false;
+
+            // 将 i 之后的段与随机位置 j 交换，优先选择使局部违规数下降的交换
+            int a = (i + 1) % m;
+            int swapped = -1;
+            for (int t = 0; t < SWAP_TRIES && swapped < 0; t++) {
+                int j = random.nextInt(m);
+                if (j == a) continue;
+                int count = ringAffected(affected, a, j, m);
+                int before = countBad(graph, order, segHead, segTail, affected, count);
+                swap(order, a, j);
+                if (countBad(graph, order, segHead, segTail, affected, count) < before) {
+                    swapped = j;
+                } else {
+                    swap(order, a, j);
+                }
+            }
+            if (swapped < 0) {
+                // 随机游走跳出局部最优
+                int j = random.nextInt(m - 1);
+                swapped = j >= a ? j + 1 : j;
+                swap(order, a, swapped);
+            }
+            int count = ringAffected(affected, a, swapped, m);
+            for (int k = 0; k < count; k++) pending.push(affected[k]);
+        }
+        for (int i = 0; i < m; i++) {
+            if (badJunction(graph, order, segHead, segTail, i)) return false;
+        }
+        return true;
+    }
+
+    private static boolean backtrackRing(ConflictGraph graph, int[] order, int[] segHead, int[] segTail) {
+        int m = order.length;
+        boolean[] used = new boolean[m];
+        order[0] = 0;
+        used[0] = true;
+        return extendRing(graph, order, used, 1, segHead, segTail);
+    }
+
+    private static boolean extendRing(ConflictGraph graph, int[] order, boolean[] used, int depth,
+                                      int[] segHead, int[] segTail) {
+        int m = order.length;
+        if (depth == m) {
+            return !graph.forbids(segTail[order[m - 1]], segHead[order[0]]);
+        }
+        for (int s = 0; s < m; s++) {
+            if (used[s] || graph.forbids(segTail[order[depth - 1]], segHead[s])) continue; // 剪枝
+            used[s] = true;
+            order[depth] = s;
+            if (extendRing(graph, order, used, depth + 1, segHead, segTail)) return true;
+            used[s] = false;
+        }
+        return false;
+    }
+
+    // ==================== 单向分配 ====================
+
+    /**
+     * 求解单向分配：reviewees 全覆盖，reviewers 负载差≤1（大池抽样时每人1个）
+     *
+     * @param graph      冲突图
+     * @param reviewers  候选审查人下标
+     * @param reviewees  被审查人下标
+     * @param direction  方向标识（用于异常提示）
+     * @param random     随机源
+     * @return {审查人下标[], 被审查人下标[]}，同一位置构成一条分配
+     * @throws IllegalArgumentException 约束无法满足
+     */
+    static int[][] solveDirection(ConflictGraph graph, int[] reviewers, int[] reviewees, String direction,
+                                  Random random) {
+        return solveDirection(graph, reviewers, reviewees, direction, random, true);
+    }
+
+    /**
+     * 求解单向分配（可保留审查人优先顺序）
+     *
+     * @param shuffleReviewers 为 false 时按 reviewers 顺序优先：大池抽样时靠前者入选，小池时靠前者多分 1 项；
+     *                         约束需要时仍会调整（约束为硬条件，顺序只是偏好）
+     */
+    static int[][] solveDirection(ConflictGraph graph, int[] reviewers, int[] reviewees, String direction,
+                                  Random random, boolean shuffleReviewers) {
+        int n = reviewees.length;
+        int r = reviewers.length;
+        boolean sampling = r >= n;
+        int[] pool = reviewers.clone();
+        int[] targets = reviewees.clone();
+        if (shuffleReviewers) {
+            shuffle(pool, random);
+        }
+        shuffle(targets, random);
+
+        // 槽位：slot[k] 审查 targets[k]；大池抽样时 pool[n..r) 为备选审查人
+        int[] slot = new int[n];
+        for (int k = 0; k < n; k++) {
+            slot[k] = pool[sampling ? k : k % r];
+        }
+        int[] poolPos = new int[graph.size()];
+        int[] targetPos = new int[graph.size()];
+        Arrays.fill(poolPos, -1);
+        Arrays.fill(targetPos, -1);
+        for (int i = 0; i < r; i++) poolPos[pool[i]] = i;
+        for (int k = 0; k < n; k++) targetPos[targets[k]] = k;
+
+        // 固定配对先落位并锁定
+        boolean[] locked = new boolean[n];
+        for (int pin = 0; pin < graph.pinCount(); pin++) {
+            int reviewee = graph.pinReviewee(pin);
+            if (targetPos[reviewee] < 0) continue;
+            int reviewer = graph.pinReviewer(pin);
+            if (poolPos[reviewer] < 0) {
+                throw new IllegalArgumentException(String.format("方向[%s]：固定配对 %s→%s 的审查人不在审查方",
+                        direction, graph.employeeId(reviewer), graph.employeeId(reviewee)));
+            }
+            int s = -1;
+            if (sampling) {
+                int i = poolPos[reviewer];
+                if (i < n) {
+                    s = locked[i] ? -1 : i;
+                } else if (!locked[targetPos[reviewee]]) {
+                    // 备选审查人换入被审查人当前所在槽位
+                    s = targetPos[reviewee];
+                    swap(pool, i, s);
+                    poolPos[pool[i]] = i;
+                    poolPos[reviewer] = s;
+                    slot[s] = reviewer;
+                }
+            } else {
+                for (int k = poolPos[reviewer]; k < n; k += r) {
+                    if (!locked[k]) {
+                        s = k;
+                        break;
+                    }
+                }
+            }
+            if (s < 0) {
+                throw new IllegalArgumentException(String.format("方向[%s]：审查人 %s 的固定配对超过其负载上限",
+                        direction, graph.employeeId(reviewer)));
+            }
+            int k = targetPos[reviewee];
+            swap(targets, k, s);
+            targetPos[targets[k]] = k;
+            targetPos[reviewee] = s;
+            locked[s] = true;
+        }
+
+        // 快速判定：某被审查人无人可查 / 小池审查人无人可查
+        for (int k = 0; k < n; k++) {
+            int reviewee = targets[k];
+            if (!locked[k] && graph.inConflictBound(reviewee) >= r - 1 && !hasReviewer(graph, reviewee, pool)) {
+                throw new IllegalArgumentException(String.format("方向[%s]：约束无法满足，%s 没有可用的审查人",
+                        direction, graph.employeeId(reviewee)));
+            }
+        }
+        if (!sampling) {
+            for (int reviewer : pool) {
+                if (graph.outConflictBound(reviewer) >= n - 1 && !hasReviewee(graph, reviewer, targets)) {
+                    throw new IllegalArgumentException(String.format("方向[%s]：约束无法满足，%s 没有可审查的对象",
+                            direction, graph.employeeId(reviewer)));
+                }
+            }
+        }
+
+        if (!repairDirection(graph, slot, targets, locked, pool, sampling, random)) {
+            // 随机修复只在槽位间交换，无法改变"谁多分 1 项"：转为精确匹配
+            matchDirection(graph, slot, targets, locked, pool, direction);
+        }
+        return new int[][]{slot, targets};
+    }
+
+    /**
+     * 精确回退：单向分配即带容量的二部匹配，每位审查人负载须落在 [⌊n/r⌋, ⌈n/r⌉]（大池抽样时为 [0, 1]）
+     * 1. 保留当前合法配对与固定配对，其余被审查人沿交错路径增广到尚有余量的审查人
+     * 2. 负载低于下限的审查人沿交错路径从高于下限者处接过 1 项（总数不变，其他人仍在上下限内）
+     * 两步均为完备搜索，找不到路径即证明约束无法满足；每次增广 O(n·r)，只在随机修复失败时运行
+     */
+    private static void matchDirection(ConflictGraph graph, int[] slot, int[] targets, boolean[] locked,
+                                       int[] pool, String direction) {
+        int n = targets.length;
+        int r = pool.length;
+        int floor = n / r;
+        int ceil = (n + r - 1) / r;
+        int[] poolPos = new int[graph.size()];
+        for (int i = 0; i < r; i++) poolPos[pool[i]] = i;
+
+        // owner[k]：targets[k] 的审查人（pool 下标，-1 待分配）；owned[i·ceil, i·ceil+load[i]) 为其名下位置
+        int[] owner = new int[n];
+        int[] load = new int[r];
+        int[] owned = new int[r * ceil];
+        for (int k = 0; k < n; k++) {
+            owner[k] = -1;
+            int i = poolPos[slot[k]];
+            if ((locked[k] || !graph.forbids(slot[k], targets[k])) && load[i] < ceil) {
+                owner[k] = i;
+                owned[i * ceil + load[i]++] = k;
+            }
+        }
+
+        int[] via = new int[r];
+        int[] prevReviewer = new int[r];
+        int[] seenReviewer = new int[r];
+        int[] seenTarget = new int[n];
+        int[] queue = new int[Math.max(n, r)];
+        int stamp = 0;
+
+        // 1. 覆盖：待分配的被审查人 → 有余量的审查人
+        for (int k = 0; k < n; k++) {
+            if (owner[k] >= 0) continue;
+            stamp++;
+            int head = 0, tail = 0;
+            queue[tail++] = k;
+            seenTarget[k] = stamp;
+            int free = -1;
+            search:
+            while (head < tail) {
+                int t = queue[head++];
+                for (int i = 0; i < r; i++) {
+                    if (seenReviewer[i] == stamp || graph.forbids(pool[i], targets[t])) continue;
+                    seenReviewer[i] = stamp;
+                    via[i] = t;
+                    if (load[i] < ceil) {
+                        free = i;
+                        break search;
+                    }
+                    for (int q = i * ceil; q < i * ceil + load[i]; q++) {
+                        int u = owned[q];
+                        if (!locked[u] && seenTarget[u] != stamp) {
+                            seenTarget[u] = stamp;
+                            queue[tail++] = u;
+                        }
+                    }
+                }
+            }
+            if (free < 0) {
+                throw new IllegalArgumentException(String.format("方向[%s]：约束无法满足，%s 没有可用的审查人",
+                        direction, graph.employeeId(targets[k])));
+            }
+            // 回溯路径：每个被审查位置改挂到新审查人，链上中间审查人负载不变
+            for (int i = free; ; ) {
+                int t = via[i];
+                int previous = owner[t];
+                if (previous >= 0) release(owned, load, ceil, previous, t);
+                owner[t] = i;
+                owned[i * ceil + load[i]++] = t;
+                if (previous < 0) break;
+                i = previous;
+            }
+        }
+
+        // 2. 下限：负载不足的审查人 ← 负载高于下限的审查人（floor == ceil 时总量守恒，不会出现不足）
+        for (int u = 0; u < r && floor < ceil; u++) {
+            while (load[u] < floor) {
+                stamp++;
+                int head = 0, tail = 0;
+                queue[tail++] = u;
+                seenReviewer[u] = stamp;
+                int surplus = -1;
+                search:
+                while (head < tail) {
+                    int x = queue[head++];
+                    for (int t = 0; t < n; t++) {
+                        int v = owner[t];
+                        if (locked[t] || seenReviewer[v] == stamp || graph.forbids(pool[x], targets[t])) continue;
+                        seenReviewer[v] = stamp;
+                        via[v] = t;
+                        prevReviewer[v] = x;
+                        if (load[v] > floor) {
+                            surplus = v;
+                            break search;
+                        }
+                        queue[tail++] = v;
+                    }
+                }
+                if (surplus < 0) {
+                    throw new IllegalArgumentException(String.format("方向[%s]：约束无法满足，%s 的审查负载无法达到 %d 项",
+                            direction, graph.employeeId(pool[u]), floor));
+                }
+                for (int v = surplus; v != u; v = prevReviewer[v]) {
+                    int t = via[v];
+                    int x = prevReviewer[v];
+                    release(owned, load, ceil, v, t);
+                    owner[t] = x;
+                    owned[x * ceil + load[x]++] = t;
+                }
+            }
+        }
+
+        for (int k = 0; k < n; k++) {
+            slot[k] = pool[owner[k]];
+        }
+    }
+
+    /**
+     * 从审查人 i 名下移除被审查位置 t（与末位交换）
+     */
+    private static void release(int[] owned, int[] load, int ceil, int i, int t) {
+        int last = i * ceil + --load[i];
+        for (int q = i * ceil; q <= last; q++) {
+            if (owned[q] == t) {
+                owned[q] = owned[last];
+                return;
+            }
+        }
+    }
+
+    private static boolean repairDirection(ConflictGraph graph, int[] slot, int[] targets, boolean[] locked,
+                                           int[] pool, boolean sampling, Random random) {
+        int n = targets.length;
+        int spare = sampling ? pool.length - n : 0;
+        IntStack pending = new IntStack(n);
+        for (int k = 0; k < n; k++) {
+            if (!locked[k] && graph.forbids(slot[k], targets[k])) pending.push(k);
+        }
+        long budget = 32L * n + 1024;
+        while (!pending.isEmpty()) {
+            int k = pending.pop();
+            if (!graph.forbids(slot[k], targets[k])) continue;
+            if (budget-- == 0) return false;
+
+            boolean moved = false;
+            for (int t = 0; t < SWAP_TRIES && !moved; t++) {
+                if (spare > 0 && random.nextBoolean()) {
+                    // 与备选审查人互换：不影响其他槽位
+                    int u = n + random.nextInt(spare);
+                    if (!graph.forbids(pool[u], targets[k])) {
+                        swap(pool, k, u);
+                        slot[k] = pool[k];
+                        moved = true;
+                    }
+                } else {
+                    // 与其他槽位互换被审查人：双方都合法才接受
+                    int j = random.nextInt(n);
+                    if (j != k && !locked[j]
+                            && !graph.forbids(slot[k], targets[j]) && !graph.forbids(slot[j], targets[k])) {
+                        swap(targets, k, j);
+                        moved = true;
+                    }
+                }
+            }
+            if (!moved) {
+                // 随机游走：修好 k，允许破坏 j，j 稍后继续修复
+                for (int t = 0; t < SWAP_TRIES; t++) {
+                    int j = random.nextInt(n);
+                    if (j != k && !locked[j] && !graph.forbids(slot[k], targets[j])) {
+                        swap(targets, k, j);
+                        pending.push(j);
+                        break;
+                    }
+                }
+                pending.push(k);
+            }
+        }
+        return true;
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private static boolean badJunction(ConflictGraph graph, int[] order, int[] segHead, int[] segTail, int i) {
+        return graph.forbids(segTail[order[i]], segHead[order[(i + 1) % order.length]]);
+    }
+
+    private static int countBad(ConflictGraph graph, int[] order, int[] segHead, int[] segTail,
+                                int[] junctions, int count) {
+        int bad = 0;
+        for (int k = 0; k < count; k++) {
+            if (badJunction(graph, order, segHead, segTail, junctions[k])) bad++;
+        }
+        return bad;
+    }
+
+    /**
+     * 交换位置 a、j 后受影响的连接点（去重）
+     */
+    private static int ringAffected(int[] out, int a, int j, int m) {
+        int count = 0;
+        int[] candidates = {(a - 1 + m) % m, a, (j - 1 + m) % m, j};
+        for (int c : candidates) {
+            boolean seen = false;
+            for (int k = 0; k < count; k++) {
+                if (out[k] == c) {
+                    seen = true;
+                    break;
+                }
+            }
+            if (!seen) out[count++] = c;
+        }
+        return count;
+    }
+
+    private static boolean hasHead(ConflictGraph graph, int tail, int[] segHead, int m, int self) {
+        for (int s = 0; s < m; s++) {
+            if (s != self && !graph.forbids(tail, segHead[s])) return true;
+        }
+        return m == 1 && !graph.forbids(tail, segHead[self]);
+    }
+
+    private static boolean hasTail(ConflictGraph graph, int head, int[] segTail, int m, int self) {
+        for (int s = 0; s < m; s++) {
+            if (s != self && !graph.forbids(segTail[s], head)) return true;
+        }
+        return m == 1 && !graph.forbids(segTail[self], head);
+    }
+
+    private static boolean hasReviewer(ConflictGraph graph, int reviewee, int[] pool) {
+        for (int reviewer : pool) {
+            if (!graph.forbids(reviewer, reviewee)) return true;
+        }
+        return false;
+    }
+
+    private static boolean hasReviewee(ConflictGraph graph, int reviewer, int[] targets) {
+        for (int reviewee : targets) {
+            if (!graph.forbids(reviewer, reviewee)) return true;
+        }
+        return false;
+    }
+
+    private static boolean isSingleCycle(int[] next) {
+        int steps = 0;
+        int p = 0;
+        do {
+            p = next[p];
+            steps++;
+        } while (p != 0 && p >= 0 && steps <= next.length);
+        return p == 0 && steps == next.length;
+    }
+
+    private static int[] walk(int[] next, int start, int n) {
+        int[] order = new int[n];
+        for (int i = 0, p = start; i < n; i++, p = next[p]) {
+            order[i] = p;
+        }
+        return order;
+    }
+
+    private static int[] shuffledRange(int m, Random random) {
+        int[] order = new int[m];
+        for (int i = 0; i < m; i++) order[i] = i;
+        shuffle(order, random);
+        return order;
+    }
+
+    private static void shuffle(int[] values, Random random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            swap(values, i, random.nextInt(i + 1));
+        }
+    }
+
+    private static void swap(int[] values, int i, int j) {
+        int tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+    }
+
+    /**
+     * 待修复位置栈（基本类型，按需扩容）
+     */
+    private static final class IntStack {
+        private int[] values;
+        private int size;
+
+        IntStack(int capacity) {
+            values = new int[Math.max(capacity, 16)];
+        }
+
+        void push(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        int pop() {
+            return values[--size];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
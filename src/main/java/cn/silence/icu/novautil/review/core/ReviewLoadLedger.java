@@ -0,0 +1,179 @@
+package cn.silence.icu.novautil.review.core;
+
+import cn.silence.icu.novautil.review.model.Person;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 审查负载台账：按工号累计每人历史审查任务数（跨轮次持久化，用于公平分配）
+ * 存储为开放寻址的 工号数组 + int 计数数组，不为每人创建包装对象
+ * 文件布局（DataOutput 大端）：魔数、版本、累计轮数(long)、人数，随后逐条 [工号(UTF)][计数(int)]
+ * ✅ 保存：先写临时文件再原子替换，中途失败不损坏旧台账
+ *
+ * @author rainofsilence
+ * @version 1.0.0
+ * @since 2026/02/13 14:20 周五
+ */
+public final class ReviewLoadLedger {
+
+    private static final int MAGIC = 0x4E524C4C; // "NRLL"
+    private static final int VERSION = 1;
+
+    private String[] keys;
+    private int[] counts;
+    private int size;
+    private long rounds;
+
+    public ReviewLoadLedger() {
+        this.keys = new String[16];
+        this.counts = new int[16];
+    }
+
+    // ==================== 持久化 ====================
+
+    /**
+     * 读取台账文件（文件不存在时返回空台账）
+     *
+     * @throws IOException 文件损坏或版本不支持
+     */
+    public static ReviewLoadLedger load(String filePath) throws IOException {
+        ReviewLoadLedger ledger = new ReviewLoadLedger();
+        Path path = Paths.get(filePath);
+        if (!Files.exists(path)) {
+            return ledger;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("不是有效的审查负载台账: " + filePath);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException(String.format("不支持的台账版本: %d（当前支持 %d）", version, VERSION));
+            }
+            ledger.rounds = in.readLong();
+            int entries = in.readInt();
+            for (int i = 0; i < entries; i++) {
+                ledger.add(in.readUTF(), in.readInt());
+            }
+        } catch (EOFException e) {
+            throw new IOException("审查负载台账已截断: " + filePath, e);
+        }
+        return ledger;
+    }
+
+    /**
+     * 保存台账（临时文件 + 原子替换）
+     */
+    public void save(String filePath) throws IOException {
+        Path path = Paths.get(filePath).toAbsolutePath();
+        Files.createDirectories(path.getParent());
+        Path temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(rounds);
+                out.writeInt(size);
+                for (int slot = 0; slot < keys.length; slot++) {
+                    if (keys[slot] != null) {
+                        out.writeUTF(keys[slot]);
+                        out.writeInt(counts[slot]);
+                    }
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // ==================== 计数 ====================
+
+    /**
+     * 累计审查任务数（未出现过的工号为 0）
+     */
+    public int countOf(String employeeId) {
+        int slot = find(employeeId);
+        return keys[slot] == null ? 0 : counts[slot];
+    }
+
+    /**
+     * 记录一轮分配：每位审查人累加其被审查人数，轮数 +1
+     */
+    public void record(Map<Person, List<Person>> assignment) {
+        for (Map.Entry<Person, List<Person>> entry : assignment.entrySet()) {
+            add(entry.getKey().getEmployeeId(), entry.getValue().size());
+        }
+        rounds++;
+    }
+
+    /**
+     * 已记录的工号数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 已记录的分配轮数
+     */
+    public long getRounds() {
+        return rounds;
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private void add(String employeeId, int delta) {
+        int slot = find(employeeId);
+        if (keys[slot] == null) {
+            keys[slot] = employeeId;
+            size++;
+            counts[slot] = delta;
+            if (size * 2 > keys.length) {
+                rehash(); // 负载因子超过 0.5：翻倍并重新散列
+            }
+        } else {
+            counts[slot] += delta;
+        }
+    }
+
+    private int find(String employeeId) {
+        int mask = keys.length - 1;
+        int slot = spread(employeeId.hashCode()) & mask;
+        while (keys[slot] != null && !keys[slot].equals(employeeId)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        String[] oldKeys = keys;
+        int[] oldCounts = counts;
+        keys = new String[oldKeys.length * 2];
+        counts = new int[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ReviewLoadLedger{rounds=%d, people=%d, maxLoad=%d}",
+                rounds, size, Arrays.stream(counts).max().orElse(0));
+    }
+}
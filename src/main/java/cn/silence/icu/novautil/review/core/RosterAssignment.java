@@ -0,0 +1,119 @@
+package cn.silence.icu.novautil.review.core;
+
+import cn.silence.icu.novautil.review.model.OffHeapRoster;
+import cn.silence.icu.novautil.review.model.Person;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * 基于堆外名册的分配结果（下标 CSR，不持有 Person 对象）
+ * 人员下标为全局下标：[0, |A|) 属于 poolA，[|A|, |A|+|B|) 属于 poolB（单池时只有 poolA）
+ * 审查行 row：reviewerAt(row) 审查 revieweeAt(row, 0..revieweeCount(row)-1)
+ */
+public final class RosterAssignment {
+
+    private final OffHeapRoster poolA;
+    private final OffHeapRoster poolB;
+    private final int[] rowReviewer;
+    private final int[] rowOffsets;
+    private final int[] reviewees;
+
+    RosterAssignment(OffHeapRoster poolA, OffHeapRoster poolB,
+                     int[] rowReviewer, int[] rowOffsets, int[] reviewees) {
+        this.poolA = poolA;
+        this.poolB = poolB;
+        this.rowReviewer = rowReviewer;
+        this.rowOffsets = rowOffsets;
+        this.reviewees = reviewees;
+    }
+
+    // ==================== 分配结构 ====================
+
+    public int getReviewerCount() {
+        return rowReviewer.length;
+    }
+
+    public int getTaskCount() {
+        return reviewees.length;
+    }
+
+    public int reviewerAt(int row) {
+        return rowReviewer[row];
+    }
+
+    public int revieweeCount(int row) {
+        return rowOffsets[row + 1] - rowOffsets[row];
+    }
+
+    public int revieweeAt(int row, int k) {
+        return reviewees[rowOffsets[row] + k];
+    }
+
+    // ==================== 人员字段（按全局下标） ====================
+
+    public String nameOf(int person) {
+        return rosterOf(person).nameAt(localIndex(person));
+    }
+
+    public String employeeIdOf(int person) {
+        return rosterOf(person).employeeIdAt(localIndex(person));
+    }
+
+    public ByteBuffer nameBytesOf(int person) {
+        return rosterOf(person).nameBytes(localIndex(person));
+    }
+
+    public ByteBuffer employeeIdBytesOf(int person) {
+        return rosterOf(person).employeeIdBytes(localIndex(person));
+    }
+
+    /**
+     * 按需创建 Person 视图
+     */
+    public Person personOf(int person) {
+        return rosterOf(person).personAt(localIndex(person));
+    }
+
+    /**
+     * 按工号比较两人（用于排序导出）
+     */
+    public int compareEmployeeId(int p, int q) {
+        OffHeapRoster rp = rosterOf(p);
+        if (rp == rosterOf(q)) {
+            return rp.compareEmployeeId(localIndex(p), localIndex(q));
+        }
+        ByteBuffer a = employeeIdBytesOf(p);
+        ByteBuffer b = employeeIdBytesOf(q);
+        int n = Math.min(a.remaining(), b.remaining());
+        for (int i = 0; i < n; i++) {
+            int cmp = Integer.compare(a.get(i) & 0xFF, b.get(i) & 0xFF);
+            if (cmp != 0) return cmp;
+        }
+        return Integer.compare(a.remaining(), b.remaining());
+    }
+
+    /**
+     * 物化为 Map<审查人, 被审查人列表>（与现有导出/打印接口互通，仅在确需时调用）
+     */
+    public Map<Person, List<Person>> toMap() {
+        Map<Person, List<Person>> assignment = new LinkedHashMap<>(rowReviewer.length * 4 / 3 + 1);
+        for (int row = 0; row < rowReviewer.length; row++) {
+            int count = revieweeCount(row);
+            List<Person> targets = new ArrayList<>(count);
+            for (int k = 0; k < count; k++) {
+                targets.add(personOf(revieweeAt(row, k)));
+            }
+            assignment.put(personOf(reviewerAt(row)), count == 1 ? Collections.singletonList(targets.get(0)) : targets);
+        }
+        return assignment;
+    }
+
+    private OffHeapRoster rosterOf(int person) {
+        return person < poolA.size() ? poolA : poolB;
+    }
+
+    private int localIndex(int person) {
+        return person < poolA.size() ? person : person - poolA.size();
+    }
+}
@@ -0,0 +1,312 @@
+package cn.silence.icu.novautil.review.model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 堆外人员名册（超大人员池专用）
+ * 1. 姓名、工号以 UTF-8 顺序存放在分块直接内存中：[姓名0][工号0][姓名1][工号1]...，单人记录不跨块
+ * 2. 块只追加不搬迁：写满后新开一块（容量从预估值起倍增，至多 16MB），已有块不再复制，扩容不产生待 GC 回收的旧缓冲
+ * 3. 偏移量为"块号 << 24 | 块内偏移"，存放在 int 数组中：offsets[3i] 为姓名起点，offsets[3i+1] 为工号起点，offsets[3i+2] 为工号终点
+ * 4. 工号哈希索引（开放寻址，存 下标+1）用于查重与按工号定位
+ * 每人仅占用若干 int 与原始字节，不产生 Person/String 对象；需要时通过 personAt 按需创建视图
+ *
+ * @author rainofsilence
+ * @version 1.0.0
+ * @since 2026/02/11 09:40 周三
+ */
+public final class OffHeapRoster {
+
+    /**
+     * 人数上限：哈希槽数组最大 2^30（负载因子 0.5），偏移量数组 2n+1 同样在 int 数组长度范围内
+     */
+    public static final int MAX_SIZE = 1 << 29;
+
+    // 块地址位数：单块至多 16MB，块号占高 7 位（至多 128 块，合计 2GB）
+    private static final int CHUNK_BITS = 24;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int MAX_CHUNKS = 1 << (31 - CHUNK_BITS);
+    private static final int MIN_CHUNK_SIZE = 1 << 10;
+    // 构造时按预估人数预分配的上限（更大的名册按需扩容，避免一次性申请数 GB）
+    private static final int PREALLOC_LIMIT = 1 << 20;
+
+    private final ByteBuffer[] chunks = new ByteBuffer[MAX_CHUNKS];
+    private int chunkCount;
+    private int chunkUsed;
+    private long offHeapBytes;
+    private int[] offsets;
+    private int[] slots;
+    private int size;
+
+    public OffHeapRoster() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize 预估人数（用于预分配，超出后自动扩容）
+     * @throws IllegalArgumentException 预估人数超过 {@link #MAX_SIZE}
+     */
+    public OffHeapRoster(int expectedSize) {
+        if (expectedSize > MAX_SIZE) {
+            throw new IllegalArgumentException(String.format("预估人数 %d 超过名册上限 %d", expectedSize, MAX_SIZE));
+        }
+        int capacity = Math.min(Math.max(expectedSize, 16), PREALLOC_LIMIT);
+        // 首块按每人约 16 字节预分配（至多一块 16MB），偏移量与哈希槽至多预分配 2^20 人，其余随 append 增长
+        this.chunks[0] = ByteBuffer.allocateDirect(Math.max(MIN_CHUNK_SIZE, Math.min(capacity * 16, CHUNK_SIZE)));
+        this.chunkCount = 1;
+        this.offsets = new int[capacity * 3];
+        this.slots = new int[Integer.highestOneBit(capacity) << 2];
+    }
+
+    /**
+     * 由人员列表构建名册（便于与现有 List<Person> 接口互转）
+     */
+    public static OffHeapRoster of(List<Person> people) {
+        OffHeapRoster roster = new OffHeapRoster(people.size());
+        for (Person p : people) {
+            roster.append(p.getName(), p.getEmployeeId());
+        }
+        return roster;
+    }
+
+    // ==================== 写入 ====================
+
+    /**
+     * 追加一人（校验规则与 Person 构造一致，并拒绝重复工号）
+     *
+     * @throws IllegalArgumentException 姓名/工号为空、工号重复或单人记录超过 16MB
+     * @throws IllegalStateException    人数达到 {@link #MAX_SIZE} 或字节数超过 2GB
+     */
+    public void append(String name, String employeeId) {
+        if (name == null || name.trim().isEmpty())
+            throw new IllegalArgumentException("姓名不能为空");
+        if (employeeId == null || employeeId.trim().isEmpty())
+            throw new IllegalArgumentException("工号不能为空");
+        byte[] nameBytes = name.trim().getBytes(StandardCharsets.UTF_8);
+        byte[] idBytes = employeeId.trim().getBytes(StandardCharsets.UTF_8);
+        if (indexOf(ByteBuffer.wrap(idBytes), 0, idBytes.length) >= 0) {
+            throw new IllegalArgumentException("存在重复工号: " + employeeId.trim());
+        }
+        if (size == MAX_SIZE) {
+            throw new IllegalStateException("名册人数超过上限 " + MAX_SIZE);
+        }
+
+        ensureCapacity(nameBytes.length + idBytes.length);
+        ByteBuffer chunk = chunks[chunkCount - 1];
+        int local = chunkUsed;
+        chunk.put(local, nameBytes);
+        chunk.put(local + nameBytes.length, idBytes);
+        chunkUsed += nameBytes.length + idBytes.length;
+        offHeapBytes += nameBytes.length + idBytes.length;
+        int address = (chunkCount - 1) << CHUNK_BITS | local;
+        offsets[3 * size] = address;
+        offsets[3 * size + 1] = address + nameBytes.length;
+        offsets[3 * size + 2] = address + nameBytes.length + idBytes.length;
+        insertSlot(hash(chunk, local + nameBytes.length, chunkUsed), size);
+        size++;
+    }
+
+    // ==================== 读取 ====================
+
+    public int size() {
+        return size;
+    }
+
+    public String nameAt(int index) {
+        return decode(offsets[3 * checkIndex(index)], offsets[3 * index + 1]);
+    }
+
+    public String employeeIdAt(int index) {
+        return decode(offsets[3 * checkIndex(index) + 1], offsets[3 * index + 2]);
+    }
+
+    /**
+     * 姓名的 UTF-8 字节（只读切片，不拷贝）
+     */
+    public ByteBuffer nameBytes(int index) {
+        return slice(offsets[3 * checkIndex(index)], offsets[3 * index + 1]);
+    }
+
+    /**
+     * 工号的 UTF-8 字节（只读切片，不拷贝）
+     */
+    public ByteBuffer employeeIdBytes(int index) {
+        return slice(offsets[3 * checkIndex(index) + 1], offsets[3 * index + 2]);
+    }
+
+    /**
+     * 按需创建 Person 视图
+     */
+    public Person personAt(int index) {
+        return new Person(nameAt(index), employeeIdAt(index));
+    }
+
+    /**
+     * 按工号定位下标（O(1)）
+     *
+     * @return 下标，不存在时返回 -1
+     */
+    public int indexOf(String employeeId) {
+        if (employeeId == null) {
+            return -1;
+        }
+        byte[] idBytes = employeeId.trim().getBytes(StandardCharsets.UTF_8);
+        return indexOf(ByteBuffer.wrap(idBytes), 0, idBytes.length);
+    }
+
+    /**
+     * 按另一名册中某人的工号定位下标（直接在两块直接内存之间比较字节，不拷贝、不创建字符串）
+     */
+    public int indexOf(OffHeapRoster other, int otherIndex) {
+        int from = other.offsets[3 * other.checkIndex(otherIndex) + 1];
+        int to = other.offsets[3 * otherIndex + 2];
+        return indexOf(other.chunkOf(from), local(from), local(from) + to - from);
+    }
+
+    /**
+     * 按工号字节比较两人（无符号字节序，与 UTF-8 码点顺序一致）
+     */
+    public int compareEmployeeId(int i, int j) {
+        int a = offsets[3 * checkIndex(i) + 1], aEnd = offsets[3 * i + 2];
+        int b = offsets[3 * checkIndex(j) + 1], bEnd = offsets[3 * j + 2];
+        ByteBuffer chunkA = chunkOf(a), chunkB = chunkOf(b);
+        aEnd = local(a) + aEnd - a;
+        a = local(a);
+        bEnd = local(b) + bEnd - b;
+        b = local(b);
+        while (a < aEnd && b < bEnd) {
+            int cmp = Integer.compare(chunkA.get(a++) & 0xFF, chunkB.get(b++) & 0xFF);
+            if (cmp != 0) return cmp;
+        }
+        return Integer.compare(aEnd - a, bEnd - b);
+    }
+
+    /**
+     * 已写入的堆外字节数（姓名 + 工号）
+     */
+    public long offHeapBytes() {
+        return offHeapBytes;
+    }
+
+    /**
+     * 已申请的堆外字节数（各块容量之和，含块尾未用空间）
+     */
+    public long allocatedOffHeapBytes() {
+        long bytes = 0;
+        for (int c = 0; c < chunkCount; c++) {
+            bytes += chunks[c].capacity();
+        }
+        return bytes;
+    }
+
+    // ==================== 辅助方法 ====================
+
+    /**
+     * 按工号字节 key[from, to) 定位下标
+     */
+    private int indexOf(ByteBuffer key, int from, int to) {
+        int mask = slots.length - 1;
+        for (int slot = hash(key, from, to) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int candidate = slots[slot] - 1;
+            if (idEquals(candidate, key, from, to)) {
+                return candidate;
+            }
+        }
+        return -1;
+    }
+
+    private boolean idEquals(int index, ByteBuffer key, int from, int to) {
+        int start = offsets[3 * index + 1];
+        if (offsets[3 * index + 2] - start != to - from) {
+            return false;
+        }
+        ByteBuffer chunk = chunkOf(start);
+        start = local(start);
+        for (int i = 0; i < to - from; i++) {
+            if (chunk.get(start + i) != key.get(from + i)) return false;
+        }
+        return true;
+    }
+
+    private void ensureCapacity(int extraBytes) {
+        if (3 * size + 3 > offsets.length) {
+            offsets = Arrays.copyOf(offsets, (int) Math.min(offsets.length * 2L, 3L * MAX_SIZE));
+        }
+        if (extraBytes > CHUNK_SIZE) {
+            throw new IllegalArgumentException("单人姓名与工号合计超过 " + (CHUNK_SIZE >> 20) + "MB");
+        }
+        if ((long) chunkUsed + extraBytes > chunks[chunkCount - 1].capacity()) {
+            // 当前块放不下：新开一块（容量倍增至 16MB），旧块原样保留，记录不跨块
+            if (chunkCount == MAX_CHUNKS) {
+                throw new IllegalStateException("名册超过堆外内存 2GB 上限");
+            }
+            int capacity = Math.min(Math.max(chunks[chunkCount - 1].capacity() * 2, extraBytes), CHUNK_SIZE);
+            chunks[chunkCount++] = ByteBuffer.allocateDirect(capacity);
+            chunkUsed = 0;
+        }
+        if ((size + 1L) * 2 > slots.length) {
+            // 负载因子超过 0.5：翻倍并重新散列（size < MAX_SIZE 保证新长度不超过 2^30）
+            int[] old = slots;
+            slots = new int[old.length * 2];
+            for (int value : old) {
+                if (value == 0) continue;
+                int index = value - 1;
+                int from = offsets[3 * index + 1];
+                insertSlot(hash(chunkOf(from), local(from), local(from) + offsets[3 * index + 2] - from), index);
+            }
+        }
+    }
+
+    private void insertSlot(int hash, int index) {
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = index + 1;
+    }
+
+    private ByteBuffer chunkOf(int address) {
+        return chunks[address >>> CHUNK_BITS];
+    }
+
+    /**
+     * 块内偏移（记录终点可能恰为块尾，须用"起点块内偏移 + 长度"计算，不能直接取终点地址）
+     */
+    private static int local(int address) {
+        return address & (CHUNK_SIZE - 1);
+    }
+
+    /**
+     * 地址区间 [from, to) 的只读切片（同一记录内，必在同一块）
+     */
+    private ByteBuffer slice(int from, int to) {
+        return chunkOf(from).slice(local(from), to - from).asReadOnlyBuffer();
+    }
+
+    private String decode(int from, int to) {
+        byte[] bytes = new byte[to - from];
+        chunkOf(from).get(local(from), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("名册下标越界: " + index + "（共 " + size + " 人）");
+        }
+        return index;
+    }
+
+    /**
+     * FNV-1a 哈希（基于 UTF-8 字节 bytes[from, to)）
+     */
+    private static int hash(ByteBuffer bytes, int from, int to) {
+        int h = 0x811C9DC5;
+        for (int i = from; i < to; i++) {
+            h = (h ^ (bytes.get(i) & 0xFF)) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+}
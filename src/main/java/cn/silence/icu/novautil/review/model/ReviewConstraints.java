@@ -0,0 +1,109 @@
+package cn.silence.icu.novautil.review.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 审查分配约束（与 people 同级的 constraints 节点）
+ * 1. managers：工号 → 直属上级工号（不得审查自己的直属上级）
+ * 2. projects：项目名 → 成员工号列表（同项目成员之间不互查）
+ * 3. pinned：固定配对（指定审查人必须审查指定被审查人）
+ *
+ * @author rainofsilence
+ * @version 1.0.0
+ * @since 2026/02/09 10:12 周一
+ */
+public final class ReviewConstraints {
+
+    private static final ReviewConstraints NONE = new ReviewConstraints();
+
+    @JsonProperty("managers")
+    private final Map<String, String> managers;
+
+    @JsonProperty("projects")
+    private final Map<String, List<String>> projects;
+
+    @JsonProperty("pinned")
+    private final List<PinnedPair> pinned;
+
+    // Jackson 反序列化必需
+    private ReviewConstraints() {
+        this.managers = Collections.emptyMap();
+        this.projects = Collections.emptyMap();
+        this.pinned = Collections.emptyList();
+    }
+
+    public ReviewConstraints(Map<String, String> managers,
+                             Map<String, List<String>> projects,
+                             List<PinnedPair> pinned) {
+        this.managers = managers == null ? Collections.emptyMap() : managers;
+        this.projects = projects == null ? Collections.emptyMap() : projects;
+        this.pinned = pinned == null ? Collections.emptyList() : pinned;
+    }
+
+    /**
+     * 无任何约束
+     */
+    public static ReviewConstraints none() {
+        return NONE;
+    }
+
+    public Map<String, String> getManagers() {
+        return managers == null ? Collections.emptyMap() : managers;
+    }
+
+    public Map<String, List<String>> getProjects() {
+        return projects == null ? Collections.emptyMap() : projects;
+    }
+
+    public List<PinnedPair> getPinned() {
+        return pinned == null ? Collections.emptyList() : pinned;
+    }
+
+    public boolean isEmpty() {
+        return getManagers().isEmpty() && getProjects().isEmpty() && getPinned().isEmpty();
+    }
+
+    /**
+     * 固定配对：reviewer 必须审查 reviewee
+     */
+    public static final class PinnedPair {
+
+        @JsonProperty("reviewer")
+        private final String reviewer;
+
+        @JsonProperty("reviewee")
+        private final String reviewee;
+
+        // Jackson 反序列化必需
+        private PinnedPair() {
+            this.reviewer = "";
+            this.reviewee = "";
+        }
+
+        public PinnedPair(String reviewer, String reviewee) {
+            if (reviewer == null || reviewer.trim().isEmpty())
+                throw new IllegalArgumentException("固定配对审查人工号不能为空");
+            if (reviewee == null || reviewee.trim().isEmpty())
+                throw new IllegalArgumentException("固定配对被审查人工号不能为空");
+            this.reviewer = reviewer.trim();
+            this.reviewee = reviewee.trim();
+        }
+
+        public String getReviewer() {
+            return reviewer;
+        }
+
+        public String getReviewee() {
+            return reviewee;
+        }
+
+        @Override
+        public String toString() {
+            return reviewer + "→" + reviewee;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package cn.silence.icu.novautil.review.server;
+
+import cn.silence.icu.novautil.review.model.Person;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 固定种子分配结果的有界 LRU 缓存
+ * 键由 模式 + 名册版本 + 种子 组成：名册重新加载后版本号变化，旧结果不再命中并随 LRU 自然淘汰
+ * 缓存值为只读 Map，可被多个请求并发读取
+ *
+ * @author rainofsilence
+ * @version 1.0.0
+ * @since 2026/02/12 10:15 周四
+ */
+final class AssignmentCache {
+
+    private final LinkedHashMap<String, Map<Person, List<Person>>> entries;
+    private long hits;
+    private long misses;
+
+    AssignmentCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("缓存容量必须大于0: " + capacity);
+        }
+        // accessOrder=true：按访问顺序排列，超出容量时淘汰最久未访问的结果
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Map<Person, List<Person>>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    static String key(String mode, long rosterVersion, long seed) {
+        return mode + '@' + rosterVersion + '#' + seed;
+    }
+
+    /**
+     * 查询结果（同时累计命中/未命中次数）
+     */
+    synchronized Map<Person, List<Person>> get(String key) {
+        Map<Person, List<Person>> assignment = entries.get(key);
+        if (assignment == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return assignment;
+    }
+
+    /**
+     * 写入结果（分配计算在锁外完成；并发未命中时同一种子算出的结果相同，后写覆盖无副作用）
+     */
+    synchronized void put(String key, Map<Person, List<Person>> assignment) {
+        entries.put(key, assignment);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long hits() {
+        return hits;
+    }
+
+    synchronized long misses() {
+        return misses;
+    }
+}
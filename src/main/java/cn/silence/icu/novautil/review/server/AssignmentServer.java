@@ -0,0 +1,393 @@
+package cn.silence.icu.novautil.review.server;
+
+import cn.silence.icu.novautil.review.config.PoolConfigLoader;
+import cn.silence.icu.novautil.review.core.AssignmentExporter;
+import cn.silence.icu.novautil.review.core.AssignmentPrinter;
+import cn.silence.icu.novautil.review.core.CodeReviewAssigner;
+import cn.silence.icu.novautil.review.model.Person;
+import cn.silence.icu.novautil.review.model.ReviewConstraints;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 代码审查分配本地服务（内嵌 JDK HttpServer，仅监听回环地址）
+ * 人员池与配置中的 constraints 常驻内存，其他工具通过 HTTP 调用即可，无需每次 fork JVM 并重新解析配置
+ * <p>
+ * 接口（mode=single|dual，默认 dual；seed 可选，给定时结果可复现并进入 LRU 缓存）：
+ * - GET  /assign?mode=&seed=           JSON
+ * - GET  /assign/text?mode=&seed=      控制台同款文本
+ * - GET  /assign/csv?mode=&seed=       CSV（格式同 AssignmentExporter.exportToCsv）
+ * - GET  /assign/markdown?mode=&seed=  Markdown（版式同 AssignmentExporter.exportToMarkdown）
+ * - POST /reload                       重新加载配置，名册版本号 +1
+ * 响应头 X-Roster-Version / X-Assignment-Seed 标明结果来源；导出内容直接流式写入响应体
+ *
+ * @author rainofsilence
+ * @version 1.0.0
+ * @since 2026/02/12 10:30 周四
+ */
+public final class AssignmentServer {
+
+    public static final String MODE_SINGLE = "single";
+    public static final String MODE_DUAL = "dual";
+
+    private static final int DEFAULT_CACHE_SIZE = 256;
+    private static final int BACKLOG = 4096;
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final String singleConfigPath;
+    private final String dualConfigPath;
+    private final AssignmentCache cache;
+    private final AtomicLong rosterVersion = new AtomicLong();
+    private volatile Pools pools;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param singleConfigPath 单池配置路径（为 null 时不提供 single 模式）
+     * @param dualConfigPath   双池配置路径（为 null 时不提供 dual 模式）
+     */
+    public AssignmentServer(String singleConfigPath, String dualConfigPath) {
+        this(singleConfigPath, dualConfigPath, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param cacheSize 固定种子结果的最大缓存条数
+     */
+    public AssignmentServer(String singleConfigPath, String dualConfigPath, int cacheSize) {
+        if (singleConfigPath == null && dualConfigPath == null) {
+            throw new IllegalArgumentException("单池与双池配置不能同时为空");
+        }
+        this.singleConfigPath = singleConfigPath;
+        this.dualConfigPath = dualConfigPath;
+        this.cache = new AssignmentCache(cacheSize);
+    }
+
+    // ==================== 生命周期 ====================
+
+    /**
+     * 加载配置并启动服务
+     *
+     * @param port 监听端口（0 表示随机空闲端口，实际端口见 {@link #getPort()}）
+     * @throws IOException 配置读取或端口绑定失败
+     */
+    public synchronized void start(int port) throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("服务已启动: " + getPort());
+        }
+        reload();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        server.createContext("/", this::handle);
+        executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.start();
+        System.out.printf("✅ 分配服务已启动: http://%s:%d （名册版本 %d）%n",
+                server.getAddress().getHostString(), getPort(), rosterVersion.get());
+    }
+
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        executor.shutdown();
+        server = null;
+        executor = null;
+    }
+
+    public synchronized int getPort() {
+        if (server == null) {
+            throw new IllegalStateException("服务未启动");
+        }
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * 重新读取配置文件并递增名册版本（旧版本的缓存结果不再命中）
+     *
+     * @return 新的名册版本号
+     * @throws IOException 配置读取失败（此时继续沿用旧名册）
+     */
+    public synchronized long reload() throws IOException {
+        List<Person> single = singleConfigPath == null ? null : PoolConfigLoader.loadSinglePool(singleConfigPath);
+        ReviewConstraints singleConstraints = singleConfigPath == null
+                ? null : PoolConfigLoader.loadConstraints(singleConfigPath);
+        Map<String, List<Person>> dual = dualConfigPath == null ? null : PoolConfigLoader.loadDualPool(dualConfigPath);
+        ReviewConstraints dualConstraints = dualConfigPath == null
+                ? null : PoolConfigLoader.loadConstraints(dualConfigPath);
+        long version = rosterVersion.incrementAndGet();
+        pools = new Pools(version, single, singleConstraints,
+                dual == null ? null : dual.get("poolA"),
+                dual == null ? null : dual.get("poolB"),
+                dualConstraints);
+        return version;
+    }
+
+    public long getRosterVersion() {
+        return rosterVersion.get();
+    }
+
+    int cachedResults() {
+        return cache.size();
+    }
+
+    long cacheHits() {
+        return cache.hits();
+    }
+
+    /**
+     * 缓存未命中次数（每次未命中都会实际执行一次分配）
+     */
+    long cacheMisses() {
+        return cache.misses();
+    }
+
+    // ==================== 请求处理 ====================
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            switch (path) {
+                case "/reload":
+                    if (!"POST".equals(exchange.getRequestMethod())) {
+                        sendText(exchange, 405, "仅支持 POST");
+                        return;
+                    }
+                    long version = reload();
+                    sendText(exchange, 200, "✅ 配置已重新加载，名册版本: " + version);
+                    return;
+                case "/assign":
+                case "/assign/text":
+                case "/assign/csv":
+                case "/assign/markdown":
+                    if (!"GET".equals(exchange.getRequestMethod())) {
+                        sendText(exchange, 405, "仅支持 GET");
+                        return;
+                    }
+                    handleAssign(exchange, path);
+                    return;
+                default:
+                    sendText(exchange, 404, "未知接口: " + path);
+            }
+        } catch (IllegalArgumentException e) {
+            // 参数错误同样可能发生在响应头发出之后（如流式导出时的校验），此时不能再发 400
+            if (!responseStarted(exchange)) {
+                sendText(exchange, 400, e.getMessage());
+            }
+        } catch (IOException | RuntimeException e) {
+            // 响应头已发出（流式写出中断，如客户端断开）时无法再改状态码，直接关闭连接
+            if (!responseStarted(exchange)) {
+                sendText(exchange, 500, "服务内部错误: " + e.getMessage());
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleAssign(HttpExchange exchange, String path) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String mode = query.getOrDefault("mode", MODE_DUAL);
+        String seedParam = query.get("seed");
+        long seed = seedParam == null ? ThreadLocalRandom.current().nextLong() : parseSeed(seedParam);
+
+        // 同一请求内固定名册快照，避免与并发 reload 交错
+        Pools current = pools;
+        Map<Person, List<Person>> assignment = seedParam == null
+                ? assign(current, mode, seed)
+                : cachedAssign(current, mode, seed);
+
+        String contentType;
+        switch (path) {
+            case "/assign/text":
+                contentType = "text/plain; charset=utf-8";
+                break;
+            case "/assign/csv":
+                contentType = "text/csv; charset=utf-8";
+                break;
+            case "/assign/markdown":
+                contentType = "text/markdown; charset=utf-8";
+                break;
+            default:
+                contentType = "application/json; charset=utf-8";
+        }
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.getResponseHeaders().set("X-Roster-Version", Long.toString(current.version));
+        exchange.getResponseHeaders().set("X-Assignment-Seed", Long.toString(seed));
+        exchange.sendResponseHeaders(200, 0); // 长度未知：分块传输，边生成边写出
+
+        try (OutputStream out = new BufferedOutputStream(exchange.getResponseBody(), 1 << 16)) {
+            switch (path) {
+                case "/assign/text":
+                    PrintStream printer = new PrintStream(out, false, StandardCharsets.UTF_8);
+                    AssignmentPrinter.printAssignments(assignment, printer);
+                    printer.flush();
+                    break;
+                case "/assign/csv":
+                    AssignmentExporter.writeCsv(assignment, out);
+                    break;
+                case "/assign/markdown":
+                    AssignmentExporter.writeMarkdown(assignment, out);
+                    break;
+                default:
+                    writeJson(out, mode, current.version, seed, assignment);
+            }
+        }
+    }
+
+    private Map<Person, List<Person>> cachedAssign(Pools current, String mode, long seed) {
+        String key = AssignmentCache.key(mode, current.version, seed);
+        Map<Person, List<Person>> assignment = cache.get(key);
+        if (assignment == null) {
+            assignment = Collections.unmodifiableMap(assign(current, mode, seed));
+            cache.put(key, assignment);
+        }
+        return assignment;
+    }
+
+    private static Map<Person, List<Person>> assign(Pools current, String mode, long seed) {
+        if (MODE_SINGLE.equals(mode)) {
+            if (current.single == null) {
+                throw new IllegalArgumentException("服务未加载单池配置");
+            }
+            return CodeReviewAssigner.assignSinglePool(current.single, current.singleConstraints, seed);
+        }
+        if (MODE_DUAL.equals(mode)) {
+            if (current.poolA == null) {
+                throw new IllegalArgumentException("服务未加载双池配置");
+            }
+            return CodeReviewAssigner.assignDualPool(current.poolA, current.poolB, current.dualConstraints, seed);
+        }
+        throw new IllegalArgumentException("未知分配模式: " + mode + "（可选 single / dual）");
+    }
+
+    // ==================== 响应写出 ====================
+
+    private static void writeJson(OutputStream out, String mode, long version, long seed,
+                                  Map<Person, List<Person>> assignment) throws IOException {
+        JsonGenerator json = JSON.createGenerator(out, JsonEncoding.UTF8);
+        json.writeStartObject();
+        json.writeStringField("mode", mode);
+        json.writeNumberField("rosterVersion", version);
+        json.writeNumberField("seed", seed);
+        json.writeArrayFieldStart("assignments");
+        for (Map.Entry<Person, List<Person>> entry : assignment.entrySet()) {
+            json.writeStartObject();
+            json.writeFieldName("reviewer");
+            writePerson(json, entry.getKey());
+            json.writeArrayFieldStart("reviewees");
+            for (Person reviewee : entry.getValue()) {
+                writePerson(json, reviewee);
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+        json.flush();
+    }
+
+    private static void writePerson(JsonGenerator json, Person person) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("name", person.getName());
+        json.writeStringField("employeeId", person.getEmployeeId());
+        json.writeEndObject();
+    }
+
+    /**
+     * 响应头是否已发出（sendResponseHeaders 之后响应码不再为 -1）
+     */
+    private static boolean responseStarted(HttpExchange exchange) {
+        return exchange.getResponseCode() != -1;
+    }
+
+    private static void sendText(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] body = (message + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.put(name, value);
+        }
+        return params;
+    }
+
+    private static long parseSeed(String seed) {
+        try {
+            return Long.parseLong(seed.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("seed 必须为整数: " + seed);
+        }
+    }
+
+    /**
+     * 请求执行器：运行时支持虚拟线程（JDK 21+）时每请求一个虚拟线程；
+     * 否则退化为有界平台线程池（请求均为内存计算 + 本机写出，阻塞时间短）
+     */
+    private static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            int threads = Math.max(8, Runtime.getRuntime().availableProcessors() * 4);
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newFixedThreadPool(threads, task -> {
+                Thread thread = new Thread(task, "review-server-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * 已加载的名册与约束快照（reload 时整体替换）
+     */
+    private static final class Pools {
+        final long version;
+        final List<Person> single;
+        final ReviewConstraints singleConstraints;
+        final List<Person> poolA;
+        final List<Person> poolB;
+        final ReviewConstraints dualConstraints;
+
+        Pools(long version, List<Person> single, ReviewConstraints singleConstraints,
+              List<Person> poolA, List<Person> poolB, ReviewConstraints dualConstraints) {
+            this.version = version;
+            this.single = single;
+            this.singleConstraints = singleConstraints;
+            this.poolA = poolA;
+            this.poolB = poolB;
+            this.dualConstraints = dualConstraints;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package cn.silence.icu.novautil.util;
 
+import java.nio.ByteBuffer;
+
 /**
  * @author rainofsilence
  * @version 1.0.0
@@ -18,15 +20,47 @@ public class FormatUtils {
         if (str == null) return 0;
         int width = 0;
         for (char c : str.toCharArray()) {
-            if (Character.UnicodeBlock.of(c) == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS || Character.UnicodeBlock.of(c) == Character.UnicodeBlock.CJK_SYMBOLS_AND_PUNCTUATION || Character.UnicodeBlock.of(c) == Character.UnicodeBlock.HALFWIDTH_AND_FULLWIDTH_FORMS || c >= 0xFF00 && c <= 0xFFEF) { // 全角字符
-                width += 2;
-            } else {
+            width += charWidth(c);
+        }
+        return width;
+    }
+
+    /**
+     * 计算 UTF-8 字节序列的显示宽度（供堆外名册直接使用，不创建字符串）
+     * 与 {@link #getDisplayWidth(String)} 结果一致：BMP 字符按全角/半角计，补充平面字符计 2
+     */
+    public static int getDisplayWidth(ByteBuffer utf8) {
+        if (utf8 == null) return 0;
+        int width = 0;
+        int i = utf8.position();
+        int end = utf8.limit();
+        while (i < end) {
+            int b = utf8.get(i) & 0xFF;
+            if (b < 0x80) {
                 width += 1;
+                i += 1;
+            } else if (b < 0xE0) {
+                width += charWidth(((b & 0x1F) << 6) | (utf8.get(i + 1) & 0x3F));
+                i += 2;
+            } else if (b < 0xF0) {
+                width += charWidth(((b & 0x0F) << 12) | ((utf8.get(i + 1) & 0x3F) << 6) | (utf8.get(i + 2) & 0x3F));
+                i += 3;
+            } else {
+                width += 2; // 代理对在 String 中占两个 char，各计 1
+                i += 4;
             }
         }
         return width;
     }
 
+    private static int charWidth(int c) {
+        Character.UnicodeBlock block = Character.UnicodeBlock.of(c);
+        if (block == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS || block == Character.UnicodeBlock.CJK_SYMBOLS_AND_PUNCTUATION || block == Character.UnicodeBlock.HALFWIDTH_AND_FULLWIDTH_FORMS || c >= 0xFF00 && c <= 0xFFEF) { // 全角字符
+            return 2;
+        }
+        return 1;
+    }
+
     /**
      * 左对齐填充：按显示宽度填充空格
      *
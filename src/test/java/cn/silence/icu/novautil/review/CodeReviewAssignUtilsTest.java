@@ -1,8 +1,20 @@
 package cn.silence.icu.novautil.review;
 
+import cn.silence.icu.novautil.review.config.PoolConfigLoader;
+import cn.silence.icu.novautil.review.core.AssignmentExporter;
+import cn.silence.icu.novautil.review.core.AssignmentSnapshot;
+import cn.silence.icu.novautil.review.core.CodeReviewAssigner;
+import cn.silence.icu.novautil.review.model.Person;
+import cn.silence.icu.novautil.review.model.ReviewConstraints;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * @author rainofsilence
@@ -25,14 +37,57 @@ class CodeReviewAssignUtilsTest {
     void assignSinglePoolCsv() {
         try {
             CodeReviewAssignUtils.assignSinglePoolCsv();
-        } catch (IOException e) {}
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     @Test
     void assignSinglePoolMarkdown() {
         try {
             CodeReviewAssignUtils.assignSinglePoolMarkdown();
-        } catch (IOException e) {}
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Test
+    void assignSinglePoolConstrainedPrint() {
+        try {
+            CodeReviewAssignUtils.assignSinglePoolConstrainedPrint();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Test
+    void singlePoolConstraintsAreEnforced() throws IOException {
+        List<Person> singlePool = PoolConfigLoader.loadSinglePool("config/single_pool.json");
+        ReviewConstraints constraints = PoolConfigLoader.loadConstraints("config/single_pool.json");
+        for (int round = 0; round < 200; round++) {
+            Map<Person, List<Person>> assignment = CodeReviewAssigner.assignSinglePool(singlePool, constraints);
+            assertEquals(singlePool.size(), assignment.size());
+            assertFalse(revieweeIds(assignment, "DEV002").contains("DEV001"), "DEV002 不得审查直属上级 DEV001");
+            assertEquals(List.of("DEV004"), revieweeIds(assignment, "DEV003"), "固定配对 DEV003 → DEV004");
+        }
+    }
+
+    @Test
+    void assignSinglePoolSnapshot() {
+        try {
+            CodeReviewAssignUtils.assignSinglePoolSnapshot();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Test
+    void assignSinglePoolOffHeapCsv() {
+        try {
+            CodeReviewAssignUtils.assignSinglePoolOffHeapCsv();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     @Test
@@ -53,6 +108,19 @@ class CodeReviewAssignUtilsTest {
         }
     }
 
+    @Test
+    void assignDualPoolCsvDiff() throws IOException {
+        Map<String, List<Person>> dualPool = PoolConfigLoader.loadDualPool("config/dual_pool.json");
+        ReviewConstraints constraints = PoolConfigLoader.loadConstraints("config/dual_pool.json");
+        Map<Person, List<Person>> previous = CodeReviewAssigner.assignDualPool(dualPool.get("poolA"), dualPool.get("poolB"), constraints, 7L);
+        String previousCsv = AssignmentExporter.exportToCsv(previous, System.getProperty("user.dir") + File.separator + ".uncommit/previous/");
+        String previousSnapshot = AssignmentSnapshot.write(previous, System.getProperty("user.dir") + File.separator + ".uncommit/snapshots/");
+
+        // 同一配置（含约束）+ 同一种子 → 分配相同，与 CSV、快照比对均无差异
+        assertEquals(0, CodeReviewAssignUtils.assignDualPoolCsvDiff(previousCsv, 7L));
+        assertEquals(0, CodeReviewAssignUtils.assignDualPoolCsvDiff(previousSnapshot, 7L));
+    }
+
     @Test
     void assignDualPoolMarkdown() {
         try {
@@ -61,4 +129,68 @@ class CodeReviewAssignUtilsTest {
             throw new RuntimeException(e);
         }
     }
+
+    @Test
+    void assignDualPoolConstrainedPrint() {
+        try {
+            CodeReviewAssignUtils.assignDualPoolConstrainedPrint();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Test
+    void dualPoolConstraintsAreEnforced() throws IOException {
+        Map<String, List<Person>> dualPool = PoolConfigLoader.loadDualPool("config/dual_pool.json");
+        ReviewConstraints constraints = PoolConfigLoader.loadConstraints("config/dual_pool.json");
+        for (int round = 0; round < 200; round++) {
+            Map<Person, List<Person>> assignment = CodeReviewAssigner.assignDualPool(dualPool.get("poolA"), dualPool.get("poolB"), constraints);
+            assertFalse(revieweeIds(assignment, "FE001").contains("BE001"), "同项目 FE001 不得审查 BE001");
+            assertFalse(revieweeIds(assignment, "BE001").contains("FE001"), "同项目 BE001 不得审查 FE001");
+            assertFalse(revieweeIds(assignment, "FE002").contains("BE002"), "FE002 不得审查直属上级 BE002");
+            assertTrue(revieweeIds(assignment, "BE003").contains("FE002"), "固定配对 BE003 → FE002");
+        }
+    }
+
+    @Test
+    void unsatisfiableConstraintsAreRejected() throws IOException {
+        List<Person> singlePool = PoolConfigLoader.loadSinglePool("config/single_pool.json");
+        // 全员同一项目：任何人都不能审查任何人
+        List<String> everyone = singlePool.stream().map(Person::getEmployeeId).collect(Collectors.toList());
+        ReviewConstraints constraints = new ReviewConstraints(null, Map.of("全员", everyone), null);
+        assertThrows(IllegalArgumentException.class, () -> CodeReviewAssigner.assignSinglePool(singlePool, constraints));
+    }
+
+    @Test
+    void assignDualPoolFairPrint() {
+        try {
+            CodeReviewAssignUtils.assignDualPoolFairPrint();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Test
+    void assignDualPoolOffHeapMarkdown() {
+        try {
+            CodeReviewAssignUtils.assignDualPoolOffHeapMarkdown();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Test
+    void assignDualPoolSnapshot() {
+        try {
+            CodeReviewAssignUtils.assignDualPoolSnapshot();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static List<String> revieweeIds(Map<Person, List<Person>> assignment, String reviewerId) {
+        return assignment.getOrDefault(new Person("-", reviewerId), List.of()).stream()
+                .map(Person::getEmployeeId)
+                .collect(Collectors.toList());
+    }
 }
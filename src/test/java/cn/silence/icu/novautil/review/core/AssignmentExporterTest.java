@@ -0,0 +1,243 @@
+package cn.silence.icu.novautil.review.core;
+
+import cn.silence.icu.novautil.review.model.OffHeapRoster;
+import cn.silence.icu.novautil.review.model.Person;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AssignmentExporter.exportCsvDiff 归并比对校验（上一次结果分别来自 默认导出 CSV / 有序补丁 CSV / 无序 CSV / 快照），
+ * 以及堆外名册导出与 Map 导出逐字节一致
+ *
+ * @author rainofsilence
+ * @version 1.0.0
+ * @since 2026/02/14 10:10 周六
+ */
+class AssignmentExporterTest {
+
+    @Test
+    void differentSeedYieldsExpectedChangeCounts() throws IOException {
+        Path dir = Files.createTempDirectory("csv-diff");
+        try {
+            List<Person> poolA = pool("A", 30);
+            List<Person> poolB = pool("B", 7);
+            Map<Person, List<Person>> previous = CodeReviewAssigner.assignDualPool(poolA, poolB, 1L);
+            Map<Person, List<Person>> current = CodeReviewAssigner.assignDualPool(poolA, poolB, 2L);
+            int[] expected = expectedCounts(previous, current);
+            assertTrue(expected[0] + expected[1] + expected[2] > 0, "两个种子的分配应存在差异");
+
+            String previousCsv = AssignmentExporter.exportToCsv(previous, dir.resolve("prev") + File.separator);
+            int total = AssignmentExporter.exportCsvDiff(current, previousCsv, dir.resolve("next.csv").toString(), true);
+            assertEquals(expected[0] + expected[1] + expected[2], total);
+            Path diff = single(dir, "_diff.csv");
+            assertEquals(expected[0], countRows(diff, "新增"), "新增行数");
+            assertEquals(expected[1], countRows(diff, "删除"), "删除行数");
+            assertEquals(expected[2], countRows(diff, "变更"), "变更行数");
+
+            // 补丁全量文件已按工号有序：再次比对走流式路径，且与新结果无差异
+            Path patched = single(dir, ".csv", "next_");
+            assertEquals(0, AssignmentExporter.exportCsvDiff(current, patched.toString(),
+                    dir.resolve("again") + File.separator, false));
+
+            // 快照同样按工号顺序流式读取
+            String snapshot = AssignmentSnapshot.write(previous, dir.resolve("snap") + File.separator);
+            assertEquals(total, AssignmentExporter.exportCsvDiff(current, snapshot,
+                    dir.resolve("from_snapshot") + File.separator, false));
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    @Test
+    void defaultExportIsMergedWithoutLoadingIntoMemory() throws IOException {
+        Path dir = Files.createTempDirectory("csv-diff");
+        try {
+            List<Person> poolA = pool("A", 3_000);
+            List<Person> poolB = pool("B", 1_700);
+            Map<Person, List<Person>> assignment = CodeReviewAssigner.assignDualPool(poolA, poolB, 5L);
+
+            // 默认导出（Map 与堆外名册两种入口）即按工号有序 → 归并走单趟流式读取
+            String mapCsv = AssignmentExporter.exportToCsv(assignment, dir.resolve("map") + File.separator);
+            assertTrue(AssignmentExporter.canStreamPrevious(mapCsv), "默认 CSV 导出应可流式归并");
+            AssignmentExporter.exportToCsv(CodeReviewAssigner.assignDualPool(OffHeapRoster.of(poolA), OffHeapRoster.of(poolB)),
+                    dir.resolve("roster") + File.separator);
+            assertTrue(AssignmentExporter.canStreamPrevious(single(dir.resolve("roster"), ".csv").toString()),
+                    "堆外名册 CSV 导出应可流式归并");
+            assertEquals(0, AssignmentExporter.exportCsvDiff(assignment, mapCsv,
+                    dir.resolve("next") + File.separator, false));
+
+            // 行序被打乱的 CSV 仍可比对（回退为内存排序）
+            List<String> lines = Files.readAllLines(Path.of(mapCsv), StandardCharsets.UTF_8);
+            Collections.reverse(lines.subList(1, lines.size()));
+            Path shuffled = dir.resolve("shuffled.csv");
+            Files.write(shuffled, lines, StandardCharsets.UTF_8);
+            assertFalse(AssignmentExporter.canStreamPrevious(shuffled.toString()));
+            assertEquals(0, AssignmentExporter.exportCsvDiff(assignment, shuffled.toString(),
+                    dir.resolve("again") + File.separator, false));
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    @Test
+    void specialCharactersSurviveReparse() throws IOException {
+        Path dir = Files.createTempDirectory("csv-diff");
+        try {
+            List<Person> poolA = Arrays.asList(
+                    new Person("Smith, John", "A,1"),
+                    new Person("say \"hi\"", "A\"2"),
+                    new Person("多行\n姓名", "A3"));
+            List<Person> poolB = Arrays.asList(
+                    new Person("O'Brien, \"Bob\"", "B1"),
+                    new Person("换\n行, 逗号", "B2"));
+            Map<Person, List<Person>> assignment = CodeReviewAssigner.assignDualPool(poolA, poolB, 3L);
+
+            String previousCsv = AssignmentExporter.exportToCsv(assignment, dir.resolve("prev") + File.separator);
+            assertEquals(0, AssignmentExporter.exportCsvDiff(assignment, previousCsv,
+                    dir.resolve("next") + File.separator, false), "含逗号/引号/换行的字段应原样还原");
+
+            // 姓名变化同样能被识别为变更
+            Map<Person, List<Person>> renamed = new LinkedHashMap<>();
+            assignment.forEach((reviewer, reviewees) -> renamed.put(
+                    reviewer.getEmployeeId().equals("A,1") ? new Person("Smith, Jane", "A,1") : reviewer, reviewees));
+            assertEquals(1, AssignmentExporter.exportCsvDiff(renamed, previousCsv,
+                    dir.resolve("renamed") + File.separator, false));
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    @Test
+    void rejectsDiffFileAsPrevious() throws IOException {
+        Path dir = Files.createTempDirectory("csv-diff");
+        try {
+            Map<Person, List<Person>> assignment = CodeReviewAssigner.assignDualPool(pool("A", 3), pool("B", 2), 4L);
+            String previousCsv = AssignmentExporter.exportToCsv(assignment, dir.resolve("prev") + File.separator);
+            AssignmentExporter.exportCsvDiff(assignment, previousCsv, dir.resolve("next.csv").toString(), false);
+            Path diff = single(dir, "_diff.csv");
+
+            IOException e = assertThrows(IOException.class, () -> AssignmentExporter.exportCsvDiff(
+                    assignment, diff.toString(), dir.resolve("again") + File.separator, false));
+            assertTrue(e.getMessage().contains("差异文件"), e.getMessage());
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    @Test
+    void offHeapExportMatchesMapExportByteForByte() throws IOException {
+        // 含逗号/引号/换行/竖线的姓名，以及 UTF-16 序与码点序不一致的工号（U+1D538 代理对 vs U+FF5A）
+        List<Person> poolA = new ArrayList<>(pool("A", 300));
+        poolA.add(new Person("Smith, John", "A,1"));
+        poolA.add(new Person("say \"hi\"", "A\"2"));
+        poolA.add(new Person("多行\n姓名", "\uD835\uDD38"));
+        poolA.add(new Person("竖|线", "\uFF5A"));
+        List<Person> poolB = new ArrayList<>(pool("B", 170));
+        poolB.add(new Person("O'Brien, \"Bob\"", "\uD835\uDD39"));
+        poolB.add(new Person("换\n行 | 逗号", "\uFF5B"));
+
+        // 双池：审查人抽样
+        assertExportsMatch(CodeReviewAssigner.assignDualPool(OffHeapRoster.of(poolA), OffHeapRoster.of(poolB)));
+
+        // 单池：人人都是审查人，可校验行序为码点序（U+FF5A 排在代理对 U+1D538 之前）
+        String markdown = assertExportsMatch(CodeReviewAssigner.assignSinglePool(OffHeapRoster.of(poolA)));
+        assertTrue(markdown.indexOf("\n| 竖\\|线 | `") < markdown.indexOf("\n| 多行 姓名 | `"), "Markdown 应按码点序排列审查人");
+    }
+
+    /**
+     * 同一分配结果分别以堆外名册与 Map 导出（固定内容时间），CSV/Markdown 应逐字节一致
+     *
+     * @return Markdown 文本
+     */
+    private static String assertExportsMatch(RosterAssignment offHeap) throws IOException {
+        Map<Person, List<Person>> map = offHeap.toMap();
+        String contentTime = "2026-02-14 10:10:00";
+
+        ByteArrayOutputStream expectedCsv = new ByteArrayOutputStream();
+        ByteArrayOutputStream actualCsv = new ByteArrayOutputStream();
+        AssignmentExporter.writeCsv(map, expectedCsv, contentTime);
+        AssignmentExporter.writeCsv(offHeap, actualCsv, contentTime);
+        assertArrayEquals(expectedCsv.toByteArray(), actualCsv.toByteArray(), "CSV 导出应逐字节一致");
+
+        ByteArrayOutputStream expectedMd = new ByteArrayOutputStream();
+        ByteArrayOutputStream actualMd = new ByteArrayOutputStream();
+        assertEquals(AssignmentExporter.writeMarkdown(map, expectedMd, contentTime),
+                AssignmentExporter.writeMarkdown(offHeap, actualMd, contentTime));
+        assertArrayEquals(expectedMd.toByteArray(), actualMd.toByteArray(), "Markdown 导出应逐字节一致");
+        return expectedMd.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 独立按审查人工号比对两次分配：{新增, 删除, 变更}
+     */
+    private static int[] expectedCounts(Map<Person, List<Person>> previous, Map<Person, List<Person>> current) {
+        int added = 0, removed = 0, changed = 0;
+        for (Map.Entry<Person, List<Person>> entry : current.entrySet()) {
+            List<Person> old = previous.get(entry.getKey());
+            if (old == null) {
+                added++;
+            } else if (!ids(old).equals(ids(entry.getValue()))) {
+                changed++;
+            }
+        }
+        for (Person reviewer : previous.keySet()) {
+            if (!current.containsKey(reviewer)) {
+                removed++;
+            }
+        }
+        return new int[]{added, removed, changed};
+    }
+
+    private static String ids(List<Person> people) {
+        return people.stream().map(Person::getEmployeeId).collect(Collectors.joining(";"));
+    }
+
+    private static long countRows(Path csv, String changeType) throws IOException {
+        return Files.readAllLines(csv, StandardCharsets.UTF_8).stream()
+                .filter(line -> line.startsWith(changeType + ","))
+                .count();
+    }
+
+    private static Path single(Path dir, String suffix) throws IOException {
+        return single(dir, suffix, "");
+    }
+
+    private static Path single(Path dir, String suffix, String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            List<Path> matches = files
+                    .filter(p -> p.getFileName().toString().startsWith(prefix))
+                    .filter(p -> p.getFileName().toString().endsWith(suffix))
+                    .filter(p -> suffix.equals("_diff.csv") || !p.getFileName().toString().endsWith("_diff.csv"))
+                    .collect(Collectors.toList());
+            assertEquals(1, matches.size(), "应恰好生成一个 *" + suffix + " 文件: " + matches);
+            return matches.get(0);
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static List<Person> pool(String prefix, int size) {
+        List<Person> people = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            people.add(new Person(prefix + "姓名" + i, prefix + i));
+        }
+        return people;
+    }
+}
@@ -0,0 +1,95 @@
+package cn.silence.icu.novautil.review.core;
+
+import cn.silence.icu.novautil.review.model.Person;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AssignmentSnapshot 写入后按工号/按行读取与源 Map 逐项一致
+ *
+ * @author rainofsilence
+ * @version 1.0.0
+ * @since 2026/02/15 10:20 周日
+ */
+class AssignmentSnapshotTest {
+
+    @Test
+    void singlePoolSnapshotMatchesSource() throws IOException {
+        List<Person> pool = pool("S", 37);
+        assertMatchesSource(pool, CodeReviewAssigner.assignSinglePool(pool, 11L));
+    }
+
+    @Test
+    void dualPoolSnapshotMatchesSource() throws IOException {
+        List<Person> poolA = pool("A", 120);
+        List<Person> poolB = pool("B", 9);
+        List<Person> everyone = new ArrayList<>(poolA);
+        everyone.addAll(poolB);
+        assertMatchesSource(everyone, CodeReviewAssigner.assignDualPool(poolA, poolB, 12L));
+    }
+
+    private static void assertMatchesSource(List<Person> everyone, Map<Person, List<Person>> source) throws IOException {
+        Path dir = Files.createTempDirectory("snapshot");
+        try {
+            AssignmentSnapshot snapshot = AssignmentSnapshot.open(AssignmentSnapshot.write(source, dir + File.separator));
+            assertEquals(source.size(), snapshot.getReviewerCount());
+            assertEquals(source.values().stream().mapToInt(List::size).sum(), snapshot.getEdgeCount());
+
+            // 反向索引：按源 Map 顺序逆置
+            Map<Person, List<Person>> reviewers = new HashMap<>();
+            source.forEach((reviewer, reviewees) -> reviewees.forEach(
+                    reviewee -> reviewers.computeIfAbsent(reviewee, k -> new ArrayList<>()).add(reviewer)));
+            for (Person person : everyone) {
+                String id = person.getEmployeeId();
+                assertEquals(namesAndIds(source.getOrDefault(person, List.of())), namesAndIds(snapshot.revieweesOf(id)), id);
+                assertEquals(namesAndIds(reviewers.getOrDefault(person, List.of())), namesAndIds(snapshot.reviewersOf(id)), id);
+            }
+            assertTrue(snapshot.revieweesOf("不存在").isEmpty());
+            assertTrue(snapshot.reviewersOf("不存在").isEmpty());
+
+            // 按行读取：行号按审查人工号升序，各列与源 Map 一致
+            List<Person> sortedReviewers = new ArrayList<>(source.keySet());
+            sortedReviewers.sort(Comparator.comparing(Person::getEmployeeId));
+            int[] rows = snapshot.rowsByReviewerId();
+            assertEquals(sortedReviewers.size(), rows.length);
+            for (int i = 0; i < rows.length; i++) {
+                Person reviewer = sortedReviewers.get(i);
+                List<Person> reviewees = source.get(reviewer);
+                assertEquals(reviewer.getEmployeeId(), snapshot.reviewerIdAt(rows[i]));
+                assertEquals(reviewer.getName(), snapshot.reviewerNameAt(rows[i]));
+                assertEquals(reviewees.size(), snapshot.revieweeCountAt(rows[i]));
+                for (int k = 0; k < reviewees.size(); k++) {
+                    assertEquals(reviewees.get(k).getEmployeeId(), snapshot.revieweeIdAt(rows[i], k));
+                    assertEquals(reviewees.get(k).getName(), snapshot.revieweeNameAt(rows[i], k));
+                }
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(dir)) {
+                for (Path path : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    private static List<String> namesAndIds(List<Person> people) {
+        return people.stream().map(p -> p.getName() + "/" + p.getEmployeeId()).collect(Collectors.toList());
+    }
+
+    private static List<Person> pool(String prefix, int size) {
+        List<Person> people = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            people.add(new Person(prefix + "姓名" + i, prefix + i));
+        }
+        return people;
+    }
+}
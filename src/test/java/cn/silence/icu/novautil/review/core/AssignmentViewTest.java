@@ -0,0 +1,118 @@
+package cn.silence.icu.novautil.review.core;
+
+import cn.silence.icu.novautil.review.model.Person;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AssignmentView 惰性视图校验：单池闭环、双池各方向均衡、按工号正查/反查与物化 Map 一致
+ *
+ * @author rainofsilence
+ * @version 1.0.0
+ * @since 2026/02/15 10:20 周日
+ */
+class AssignmentViewTest {
+
+    @Test
+    void singlePoolViewFormsOneRing() {
+        for (int n : new int[]{2, 3, 7, 100}) {
+            List<Person> people = pool("S", n);
+            AssignmentView view = CodeReviewAssigner.assignSinglePoolView(people);
+            assertEquals(n, view.getReviewerCount(), "单池人人都是审查人");
+
+            // 沿"审查人"反查走 n 步恰好回到起点，且途经每个人一次
+            Set<Person> visited = new HashSet<>();
+            Person current = people.get(0);
+            for (int step = 0; step < n; step++) {
+                assertTrue(visited.add(current), "n=" + n + " 闭环提前回到已访问的人: " + current);
+                Person reviewer = view.reviewerOf(current.getEmployeeId());
+                assertNotEquals(current, reviewer, "不能自查");
+                assertEquals(Collections.singletonList(current), view.revieweesOf(reviewer.getEmployeeId()),
+                        "正查与反查应互逆");
+                current = reviewer;
+            }
+            assertEquals(people.get(0), current, "n=" + n + " 应构成单一闭环");
+        }
+    }
+
+    @Test
+    void dualPoolViewBalancesEachDirection() {
+        List<Person> poolA = pool("A", 10);
+        List<Person> poolB = pool("B", 3);
+        AssignmentView view = CodeReviewAssigner.assignDualPoolView(poolA, poolB);
+
+        // A→B：10 人抽 3 人各审 1 人；B→A：3 人分摊 10 人（4/3/3）
+        assertEquals(6, view.getReviewerCount());
+        List<Integer> aLoads = new ArrayList<>();
+        for (Person a : poolA) {
+            assertTrue(poolB.contains(view.reviewerOf(a.getEmployeeId())), "poolA 应由 poolB 审查: " + a);
+            aLoads.add(view.revieweesOf(a.getEmployeeId()).size());
+        }
+        Collections.sort(aLoads);
+        assertEquals(Arrays.asList(0, 0, 0, 0, 0, 0, 0, 1, 1, 1), aLoads, "大池只抽中与小池等量的审查人");
+
+        List<Integer> bLoads = new ArrayList<>();
+        for (Person b : poolB) {
+            assertTrue(poolA.contains(view.reviewerOf(b.getEmployeeId())), "poolB 应由 poolA 审查: " + b);
+            List<Person> reviewees = view.revieweesOf(b.getEmployeeId());
+            assertTrue(poolA.containsAll(reviewees), "不得跨池审查: " + b);
+            bLoads.add(reviewees.size());
+        }
+        Collections.sort(bLoads);
+        assertEquals(Arrays.asList(3, 3, 4), bLoads, "小池审查任务量差≤1");
+    }
+
+    @Test
+    void lookupsMatchMaterializedMap() {
+        SplittableRandom random = new SplittableRandom(20260215L);
+        for (int shape = 0; shape < 300; shape++) {
+            int sizeA = 1 + random.nextInt(60);
+            int sizeB = 1 + random.nextInt(60);
+            boolean single = random.nextInt(4) == 0;
+            List<Person> everyone;
+            AssignmentView view;
+            if (single) {
+                everyone = pool("S", sizeA + 1);
+                view = CodeReviewAssigner.assignSinglePoolView(everyone);
+            } else {
+                List<Person> poolA = pool("A", sizeA);
+                List<Person> poolB = pool("B", sizeB);
+                view = CodeReviewAssigner.assignDualPoolView(poolA, poolB);
+                everyone = new ArrayList<>(poolA);
+                everyone.addAll(poolB);
+            }
+            String context = String.format("shape=%d single=%b |A|=%d |B|=%d", shape, single, sizeA, sizeB);
+
+            Map<Person, List<Person>> assignment = view.toMap();
+            assertEquals(assignment.size(), view.getReviewerCount(), context);
+            for (Person person : everyone) {
+                Person reviewer = view.reviewerOf(person.getEmployeeId());
+                assertNotNull(reviewer, context + " 缺少审查人: " + person);
+                assertTrue(assignment.get(reviewer).contains(person), context + " 反查与物化结果不一致: " + person);
+                assertEquals(assignment.getOrDefault(person, Collections.emptyList()),
+                        view.revieweesOf(person.getEmployeeId()), context + " 正查与物化结果不一致: " + person);
+            }
+        }
+    }
+
+    @Test
+    void unknownOrPaddedIdsAreHandled() {
+        AssignmentView view = CodeReviewAssigner.assignDualPoolView(pool("A", 4), pool("B", 2));
+        assertNull(view.reviewerOf("不存在"));
+        assertTrue(view.revieweesOf("不存在").isEmpty());
+        assertNull(view.reviewerOf(null));
+        assertTrue(view.revieweesOf(null).isEmpty());
+        assertSame(view.reviewerOf("A0"), view.reviewerOf(" A0 "), "工号按去除首尾空白后匹配");
+    }
+
+    private static List<Person> pool(String prefix, int size) {
+        List<Person> people = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            people.add(new Person(prefix + "姓名" + i, prefix + i));
+        }
+        return people;
+    }
+}
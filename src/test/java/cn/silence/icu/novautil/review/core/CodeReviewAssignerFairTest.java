@@ -0,0 +1,169 @@
+package cn.silence.icu.novautil.review.core;
+
+import cn.silence.icu.novautil.review.model.Person;
+import cn.silence.icu.novautil.review.model.ReviewConstraints;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 双池公平模式校验：固定种子可复现、优先抽取累计最少者、多轮累计负载差≤1（含台账持久化）
+ *
+ * @author rainofsilence
+ * @version 1.0.0
+ * @since 2026/02/15 11:00 周日
+ */
+class CodeReviewAssignerFairTest {
+
+    @Test
+    void sameSeedReproducesEveryRound() {
+        List<Person> poolA = pool("A", 7);
+        List<Person> poolB = pool("B", 3);
+        ReviewLoadLedger first = new ReviewLoadLedger();
+        ReviewLoadLedger second = new ReviewLoadLedger();
+        for (int round = 1; round <= 10; round++) {
+            Map<Person, List<Person>> a = CodeReviewAssigner.assignDualPoolFair(poolA, poolB, first, 100L + round);
+            Map<Person, List<Person>> b = CodeReviewAssigner.assignDualPoolFair(poolA, poolB, second, 100L + round);
+            assertEquals(new ArrayList<>(a.entrySet()), new ArrayList<>(b.entrySet()), "第" + round + "轮结果应一致");
+        }
+        for (Person person : concat(poolA, poolB)) {
+            assertEquals(first.countOf(person.getEmployeeId()), second.countOf(person.getEmployeeId()),
+                    "台账累计应一致: " + person);
+        }
+    }
+
+    @Test
+    void differentSeedsBreakTiesDifferently() {
+        List<Person> poolA = pool("A", 7);
+        List<Person> poolB = pool("B", 3);
+        Set<String> outcomes = new HashSet<>();
+        for (long seed = 1; seed <= 20; seed++) {
+            outcomes.add(CodeReviewAssigner.assignDualPoolFair(poolA, poolB, new ReviewLoadLedger(), seed).toString());
+        }
+        assertTrue(outcomes.size() > 1, "负载相同者之间的取舍应由种子决定");
+    }
+
+    @Test
+    void seededConstrainedFairIsReproducible() {
+        List<Person> poolA = pool("A", 6);
+        List<Person> poolB = pool("B", 4);
+        // A1 的直属上级为 B0：A1 不得审查 B0
+        ReviewConstraints constraints = new ReviewConstraints(Map.of("A1", "B0"), null, null);
+        ReviewLoadLedger first = new ReviewLoadLedger();
+        ReviewLoadLedger second = new ReviewLoadLedger();
+        for (int round = 1; round <= 10; round++) {
+            Map<Person, List<Person>> a = CodeReviewAssigner.assignDualPoolFair(poolA, poolB, first, constraints, round);
+            Map<Person, List<Person>> b = CodeReviewAssigner.assignDualPoolFair(poolA, poolB, second, constraints, round);
+            assertEquals(new ArrayList<>(a.entrySet()), new ArrayList<>(b.entrySet()), "第" + round + "轮结果应一致");
+            assertFalse(a.getOrDefault(poolA.get(1), Collections.emptyList()).contains(poolB.get(0)),
+                    "约束仍为硬条件");
+        }
+    }
+
+    @Test
+    void favoursLeastLoadedReviewers() {
+        List<Person> poolA = pool("A", 5);
+        List<Person> poolB = pool("B", 2);
+        // 历史：A0~A2 与 B0 各已审查 1 人
+        Map<Person, List<Person>> history = new LinkedHashMap<>();
+        for (int i = 0; i < 3; i++) {
+            history.put(poolA.get(i), Collections.singletonList(poolB.get(0)));
+        }
+        history.put(poolB.get(0), Collections.singletonList(poolA.get(0)));
+
+        for (long seed = 1; seed <= 20; seed++) {
+            ReviewLoadLedger ledger = new ReviewLoadLedger();
+            ledger.record(history);
+            Map<Person, List<Person>> assignment = CodeReviewAssigner.assignDualPoolFair(poolA, poolB, ledger, seed);
+            // A→B：大池只抽 2 人，应是累计为 0 的 A3、A4
+            assertEquals(Arrays.asList(1, 1), Arrays.asList(
+                    assignment.get(poolA.get(3)).size(), assignment.get(poolA.get(4)).size()), "seed=" + seed);
+            for (int i = 0; i < 3; i++) {
+                assertFalse(assignment.containsKey(poolA.get(i)), "seed=" + seed + " 累计较多者不应入选: " + poolA.get(i));
+            }
+            // B→A：5 人分给 2 人，多出的 1 项给累计为 0 的 B1
+            assertEquals(3, assignment.get(poolB.get(1)).size(), "seed=" + seed);
+            assertEquals(2, assignment.get(poolB.get(0)).size(), "seed=" + seed);
+        }
+    }
+
+    @Test
+    void cumulativeLoadStaysWithinOne() throws IOException {
+        Path ledgerDir = Files.createTempDirectory("review-ledger");
+        SplittableRandom random = new SplittableRandom(20260215L);
+        try {
+            for (int shape = 0; shape < 100; shape++) {
+                int sizeA = 1 + random.nextInt(64);
+                int sizeB = 1 + random.nextInt(64);
+                String context = String.format("shape=%d |A|=%d |B|=%d", shape, sizeA, sizeB);
+                List<Person> poolA = pool("A", sizeA);
+                List<Person> poolB = pool("B", sizeB);
+                String ledgerPath = ledgerDir.resolve("shape_" + shape + ".nrll").toString();
+                try {
+                    for (int round = 1; round <= 20; round++) {
+                        // 每轮都经过 保存→读取，校验持久化后累计值不丢失
+                        ReviewLoadLedger ledger = ReviewLoadLedger.load(ledgerPath);
+                        assertEquals(round - 1, ledger.getRounds());
+                        assertCovered(poolA, poolB, CodeReviewAssigner.assignDualPoolFair(
+                                poolA, poolB, ledger, random.nextLong()));
+                        ledger.save(ledgerPath);
+                        assertLoadSpread(poolA, ledger, "poolA 第" + round + "轮");
+                        assertLoadSpread(poolB, ledger, "poolB 第" + round + "轮");
+                    }
+                } catch (AssertionError | RuntimeException e) {
+                    throw new AssertionError(context + " → " + e.getMessage(), e);
+                } finally {
+                    Files.deleteIfExists(Paths.get(ledgerPath));
+                }
+            }
+        } finally {
+            Files.deleteIfExists(ledgerDir);
+        }
+    }
+
+    /**
+     * 双池全员被审查一次且不跨池
+     */
+    private static void assertCovered(List<Person> poolA, List<Person> poolB, Map<Person, List<Person>> assignment) {
+        Set<Person> inA = new HashSet<>(poolA);
+        Set<Person> covered = new HashSet<>();
+        for (Map.Entry<Person, List<Person>> entry : assignment.entrySet()) {
+            for (Person reviewee : entry.getValue()) {
+                assertNotEquals(inA.contains(entry.getKey()), inA.contains(reviewee),
+                        "跨池泄漏: " + entry.getKey() + " → " + reviewee);
+                assertTrue(covered.add(reviewee), "被审查人重复分配: " + reviewee);
+            }
+        }
+        assertEquals(poolA.size() + poolB.size(), covered.size(), "被审查人未全覆盖");
+    }
+
+    private static void assertLoadSpread(List<Person> pool, ReviewLoadLedger ledger, String label) {
+        int min = Integer.MAX_VALUE, max = 0;
+        for (Person person : pool) {
+            int count = ledger.countOf(person.getEmployeeId());
+            min = Math.min(min, count);
+            max = Math.max(max, count);
+        }
+        assertTrue(max - min <= 1, String.format("%s 累计负载差超过1: min=%d max=%d", label, min, max));
+    }
+
+    private static List<Person> concat(List<Person> poolA, List<Person> poolB) {
+        List<Person> everyone = new ArrayList<>(poolA);
+        everyone.addAll(poolB);
+        return everyone;
+    }
+
+    private static List<Person> pool(String prefix, int size) {
+        List<Person> people = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            people.add(new Person(prefix + "姓名" + i, prefix + i));
+        }
+        return people;
+    }
+}
@@ -0,0 +1,294 @@
+package cn.silence.icu.novautil.review.core;
+
+import cn.silence.icu.novautil.review.model.OffHeapRoster;
+import cn.silence.icu.novautil.review.model.Person;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CodeReviewAssigner 不变量压测
+ * 1. 随机池形状（对数均匀规模 + 偏斜 A/B 比例）校验：全覆盖、无自查、审查双方均属 A∪B 且不跨池、负载差≤1
+ *    List<Person> 与 OffHeapRoster 两套入口共用同一形状与同一组不变量
+ *    规模覆盖 2..stress.maxSize（默认 10M）：stress.shapeMaxSize 以内大量形状并行校验，
+ *    以上区间按对数均匀抽取 stress.largeShapes 个形状顺序校验（单个形状总人数不超过上限，控制堆占用）
+ * 2. 扩展曲线：按规模倍增记录耗时与结果保留堆（GC 后相对基线的增量），拟合 log-log 斜率拦截 O(n²) 退化
+ * 默认 test 任务只跑小规模形状；带 stress 标签的用例由 ./gradlew stressTest 执行，参数见 stress.* 系统属性
+ *
+ * @author rainofsilence
+ * @version 1.0.0
+ * @since 2026/02/10 14:20 周二
+ */
+class CodeReviewAssignerStressTest {
+
+    private static final long SEED = Long.getLong("stress.seed", 20260210L);
+
+    // ==================== 随机池形状 ====================
+
+    @Test
+    void randomPoolShapesKeepInvariants() {
+        checkRandomShapes(5_000, 256);
+    }
+
+    @Test
+    @Tag("stress")
+    void massiveRandomPoolShapesKeepInvariants() {
+        int shapeMaxSize = Integer.getInteger("stress.shapeMaxSize", 4_096);
+        checkRandomShapes(Integer.getInteger("stress.shapes", 2_000_000), shapeMaxSize);
+        checkLargeShapes(Integer.getInteger("stress.largeShapes", 24), shapeMaxSize,
+                Integer.getInteger("stress.maxSize", 10_000_000));
+    }
+
+    private static void checkRandomShapes(int shapes, int maxSize) {
+        AtomicLong people = new AtomicLong();
+        IntStream.range(0, shapes).parallel().forEach(shape -> {
+            SplittableRandom random = new SplittableRandom(SEED + shape);
+            int sizeA = logUniform(random, maxSize);
+            int sizeB = skewed(random, sizeA, maxSize);
+            checkShape(random, String.format("seed=%d shape=%d", SEED, shape), sizeA, sizeB);
+            people.addAndGet(sizeA + sizeB);
+        });
+        System.out.printf("✅ %d 个随机池形状通过不变量校验（累计 %d 人）%n", shapes, people.get());
+    }
+
+    /**
+     * 大规模区间抽样：总人数在 (minSize, maxSize] 内对数均匀，再按偏斜比例拆成 A/B（单池直接取总人数）
+     * 逐个顺序执行，同一时刻只持有一个形状
+     */
+    private static void checkLargeShapes(int shapes, int minSize, int maxSize) {
+        long people = 0;
+        for (int shape = 0; shape < shapes; shape++) {
+            SplittableRandom random = new SplittableRandom(SEED - 1 - shape);
+            int total = shape == 0 ? maxSize : logUniform(random, minSize, maxSize); // 首个形状固定取上限
+            double ratio = Math.exp(random.nextDouble() * Math.log(1000));
+            int smaller = (int) Math.max(1, Math.min(total / 2, total / (1 + ratio)));
+            int sizeA = random.nextBoolean() ? smaller : total - smaller;
+            checkShape(random, String.format("seed=%d large=%d total=%d", SEED, shape, total), sizeA, total - sizeA);
+            people += total;
+            System.out.printf("✅ 大规模形状 %d/%d 通过不变量校验（%,d 人）%n", shape + 1, shapes, total);
+        }
+        System.out.printf("✅ %d 个大规模形状通过不变量校验（累计 %d 人）%n", shapes, people);
+    }
+
+    /**
+     * 单个形状：1/4 概率为单池（人数取 |A|+|B|，至少 2 人），其余为双池；两套入口分别校验
+     */
+    private static void checkShape(SplittableRandom random, String label, int sizeA, int sizeB) {
+        String context = String.format("%s |A|=%d |B|=%d", label, sizeA, sizeB);
+        try {
+            if (random.nextInt(4) == 0) {
+                List<Person> pool = pool("S", Math.max(sizeA + sizeB, 2));
+                assertSingleInvariants(pool, CodeReviewAssigner.assignSinglePool(pool));
+                assertSingleInvariants(pool, CodeReviewAssigner.assignSinglePool(OffHeapRoster.of(pool)).toMap());
+            } else {
+                List<Person> poolA = pool("A", sizeA);
+                List<Person> poolB = pool("B", sizeB);
+                assertDualInvariants(poolA, poolB, CodeReviewAssigner.assignDualPool(poolA, poolB));
+                assertDualInvariants(poolA, poolB, CodeReviewAssigner.assignDualPool(
+                        OffHeapRoster.of(poolA), OffHeapRoster.of(poolB)).toMap());
+            }
+        } catch (AssertionError | RuntimeException e) {
+            throw new AssertionError(context + " → " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 对数均匀分布的规模：小池居多，偶尔出现大池
+     */
+    private static int logUniform(SplittableRandom random, int maxSize) {
+        return logUniform(random, 1, maxSize);
+    }
+
+    private static int logUniform(SplittableRandom random, int minSize, int maxSize) {
+        double log = Math.log(minSize) + random.nextDouble() * (Math.log(maxSize) - Math.log(minSize));
+        return (int) Math.max(minSize, Math.min(maxSize, Math.exp(log)));
+    }
+
+    /**
+     * 按偏斜比例生成另一池规模（1:1 ~ 1:1000，双向）
+     */
+    private static int skewed(SplittableRandom random, int base, int maxSize) {
+        double ratio = Math.exp(random.nextDouble() * Math.log(1000));
+        double size = random.nextBoolean() ? base * ratio : base / ratio;
+        return (int) Math.max(1, Math.min(maxSize, size));
+    }
+
+    // ==================== 扩展曲线 ====================
+
+    @Test
+    @Tag("stress")
+    void scalingCurveStaysNearLinear() throws IOException {
+        int maxSize = Integer.getInteger("stress.maxSize", 10_000_000);
+        List<Integer> sizes = new ArrayList<>();
+        for (long size = 2; size < maxSize; size *= 2) {
+            sizes.add((int) size);
+        }
+        sizes.add(maxSize);
+
+        List<long[]> rows = new ArrayList<>();
+        for (int size : sizes) {
+            List<Person> single = pool("S", size);
+            List<Person> poolA = pool("A", Math.max(1, size / 4));
+            List<Person> poolB = pool("B", Math.max(1, size - size / 4));
+
+            long singleNanos = medianNanos(size, () -> CodeReviewAssigner.assignSinglePool(single));
+            long dualNanos = medianNanos(size, () -> CodeReviewAssigner.assignDualPool(poolA, poolB));
+            long heapBytes = retainedHeapBytes(() -> CodeReviewAssigner.assignDualPool(poolA, poolB));
+            rows.add(new long[]{size, singleNanos, dualNanos, heapBytes});
+            System.out.printf("size=%,d single=%.3fms dual=%.3fms heap=%,dB%n",
+                    size, singleNanos / 1e6, dualNanos / 1e6, heapBytes);
+        }
+        writeReport(rows);
+
+        // 只拟合较大规模（小规模受计时精度与 JIT 影响），n·log n 斜率约 1.1，n² 为 2
+        List<long[]> tail = rows.subList(Math.max(0, rows.size() - 6), rows.size());
+        if (tail.size() >= 3 && tail.get(0)[0] >= 1 << 14) {
+            assertTrue(slope(tail, 1) < 1.5, "单池耗时增长超线性: slope=" + slope(tail, 1));
+            assertTrue(slope(tail, 2) < 1.5, "双池耗时增长超线性: slope=" + slope(tail, 2));
+            assertTrue(slope(tail, 3) < 1.5, "双池结果保留堆增长超线性: slope=" + slope(tail, 3));
+        }
+    }
+
+    private static long medianNanos(int size, Runnable task) {
+        int reps = size >= 1 << 20 ? 3 : size >= 1 << 14 ? 7 : 31;
+        task.run(); // 预热
+        long[] samples = new long[reps];
+        for (int i = 0; i < reps; i++) {
+            long start = System.nanoTime();
+            task.run();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[reps / 2];
+    }
+
+    /**
+     * 分配结果的保留堆：人员池已就绪时 GC 取基线，执行任务并持有结果后再 GC，二者之差即结果本身独占的堆
+     * （不含人员池，也不含计算过程中已回收的临时对象）
+     */
+    private static long retainedHeapBytes(Supplier<Object> task) {
+        long baseline = usedHeapAfterGc();
+        Object result = task.get();
+        long retained = usedHeapAfterGc() - baseline;
+        Reference.reachabilityFence(result); // 保证测量期间结果仍可达
+        return Math.max(0, retained);
+    }
+
+    /**
+     * 连续 GC 取最小读数（单次 GC 后可能仍有浮动垃圾）
+     */
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            memory.gc();
+            used = Math.min(used, memory.getHeapMemoryUsage().getUsed());
+        }
+        return used;
+    }
+
+    /**
+     * 最小二乘拟合 log(耗时) ~ log(规模) 的斜率
+     */
+    private static double slope(List<long[]> rows, int column) {
+        double sx = 0, sy = 0, sxx = 0, sxy = 0;
+        for (long[] row : rows) {
+            double x = Math.log(row[0]);
+            double y = Math.log(Math.max(1, row[column]));
+            sx += x;
+            sy += y;
+            sxx += x * x;
+            sxy += x * y;
+        }
+        int n = rows.size();
+        return (n * sxy - sx * sy) / (n * sxx - sx * sx);
+    }
+
+    private static void writeReport(List<long[]> rows) throws IOException {
+        Path dir = Paths.get(System.getProperty("stress.reportDir", "build" + File.separator + "reports" + File.separator + "stress"));
+        Files.createDirectories(dir);
+        Path report = dir.resolve("scaling.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(report, StandardCharsets.UTF_8)) {
+            writer.write("size,singleNanos,dualNanos,retainedHeapBytes");
+            writer.newLine();
+            for (long[] row : rows) {
+                writer.write(row[0] + "," + row[1] + "," + row[2] + "," + row[3]);
+                writer.newLine();
+            }
+        }
+        System.out.println("✅ 扩展曲线已写入: " + report.toAbsolutePath());
+    }
+
+    // ==================== 不变量校验 ====================
+
+    private static void assertSingleInvariants(List<Person> pool, Map<Person, List<Person>> assignment) {
+        assertEquals(pool.size(), assignment.size(), "单池每人都应参与审查");
+        Set<Person> members = new HashSet<>(pool);
+        Set<Person> covered = new HashSet<>(pool.size() * 4 / 3 + 1);
+        for (Map.Entry<Person, List<Person>> entry : assignment.entrySet()) {
+            assertEquals(1, entry.getValue().size(), "单池每人只审查1人");
+            Person reviewee = entry.getValue().get(0);
+            assertTrue(members.contains(entry.getKey()), "审查人不在人员池中: " + entry.getKey());
+            assertTrue(members.contains(reviewee), "被审查人不在人员池中: " + reviewee);
+            assertNotEquals(entry.getKey(), reviewee, "出现自查: " + reviewee);
+            assertTrue(covered.add(reviewee), "被审查人重复分配: " + reviewee);
+        }
+        assertTrue(covered.containsAll(pool), "单池存在未覆盖的被审查人");
+    }
+
+    private static void assertDualInvariants(List<Person> poolA, List<Person> poolB,
+                                             Map<Person, List<Person>> assignment) {
+        Set<Person> inA = new HashSet<>(poolA);
+        Set<Person> inB = new HashSet<>(poolB);
+        Set<Person> covered = new HashSet<>((poolA.size() + poolB.size()) * 4 / 3 + 1);
+        int minA = Integer.MAX_VALUE, maxA = 0, minB = Integer.MAX_VALUE, maxB = 0;
+        for (Map.Entry<Person, List<Person>> entry : assignment.entrySet()) {
+            Person reviewer = entry.getKey();
+            boolean reviewerInA = inA.contains(reviewer);
+            assertTrue(reviewerInA || inB.contains(reviewer), "审查人不属于 A∪B: " + reviewer);
+            int load = entry.getValue().size();
+            assertTrue(load > 0, "审查人无任务: " + reviewer);
+            for (Person reviewee : entry.getValue()) {
+                assertTrue(inA.contains(reviewee) || inB.contains(reviewee), "被审查人不属于 A∪B: " + reviewee);
+                assertNotEquals(reviewer, reviewee, "出现自查: " + reviewee);
+                assertNotEquals(reviewerInA, inA.contains(reviewee), "跨池泄漏: " + reviewer + " → " + reviewee);
+                assertTrue(covered.add(reviewee), "被审查人重复分配: " + reviewee);
+            }
+            if (reviewerInA) {
+                minA = Math.min(minA, load);
+                maxA = Math.max(maxA, load);
+            } else {
+                minB = Math.min(minB, load);
+                maxB = Math.max(maxB, load);
+            }
+        }
+        assertEquals(poolA.size() + poolB.size(), covered.size(), "存在未覆盖的被审查人");
+        assertTrue(maxA - minA <= 1, String.format("A→B 负载差超过1: min=%d max=%d", minA, maxA));
+        assertTrue(maxB - minB <= 1, String.format("B→A 负载差超过1: min=%d max=%d", minB, maxB));
+    }
+
+    private static List<Person> pool(String prefix, int size) {
+        List<Person> people = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String id = prefix + i;
+            people.add(new Person(id, id)); // 姓名与工号共用同一字符串，千万级池少占一半字符串内存
+        }
+        return people;
+    }
+}
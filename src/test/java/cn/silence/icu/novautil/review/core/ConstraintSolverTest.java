@@ -0,0 +1,426 @@
+package cn.silence.icu.novautil.review.core;
+
+import cn.silence.icu.novautil.review.model.OffHeapRoster;
+import cn.silence.icu.novautil.review.model.Person;
+import cn.silence.icu.novautil.review.model.ReviewConstraints;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 约束求解回归：已知可解的紧约束必须求解成功，小规模随机实例与穷举结论一致
+ *
+ * @author rainofsilence
+ * @version 1.0.0
+ * @since 2026/02/15 14:40 周日
+ */
+class ConstraintSolverTest {
+
+    private static final long SEED = 20260215L;
+
+    // ==================== 单池环 ====================
+
+    @Test
+    void largeTightRingsAreClosed() {
+        assertTightRingsClosed(2_000, 900);  // 单项目占 45%
+        assertTightRingsClosed(200, 98);     // 单项目占 49%
+    }
+
+    private static void assertTightRingsClosed(int n, int projectSize) {
+        List<Person> people = pool("P", n);
+        List<String> members = people.subList(0, projectSize).stream().map(Person::getEmployeeId).collect(Collectors.toList());
+        ReviewConstraints constraints = new ReviewConstraints(Map.of("P1", "P0", "P" + (n - 1), "P1"), Map.of("大项目", members), null);
+        for (int round = 0; round < 20; round++) {
+            assertValidRing(people, constraints, CodeReviewAssigner.assignSinglePool(people, constraints));
+        }
+    }
+
+    @Test
+    void oversizedProjectIsRejectedQuickly() {
+        List<Person> people = pool("P", 100_000);
+        List<String> members = people.subList(0, 50_001).stream().map(Person::getEmployeeId).collect(Collectors.toList());
+        ReviewConstraints constraints = new ReviewConstraints(null, Map.of("大项目", members), null);
+        long start = System.nanoTime();
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> CodeReviewAssigner.assignSinglePool(people, constraints));
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(e.getMessage().contains("一半"), e.getMessage());
+        assertTrue(millis < 2_000, "无解判定耗时过长: " + millis + "ms");
+    }
+
+    @Test
+    void halfSizedProjectRingClosesForEverySeed() {
+        // 项目2 恰占 32 人的一半（成员只能隔位排布），且与项目1 大量重叠：单次随机修复约半数失败
+        List<Person> people = pool("P", 32);
+        Map<String, String> managers = Map.of("P12", "P29", "P23", "P1", "P27", "P0", "P18", "P31", "P7", "P3",
+                "P28", "P10", "P9", "P24", "P19", "P0", "P20", "P6");
+        Map<String, List<String>> projects = Map.of(
+                "项目1", List.of("P0", "P2", "P3", "P5", "P12", "P13", "P14", "P15", "P17", "P19", "P22", "P26", "P31"),
+                "项目2", List.of("P3", "P4", "P6", "P7", "P10", "P12", "P14", "P16", "P17", "P18", "P19", "P21",
+                        "P22", "P24", "P27", "P31"));
+        ReviewConstraints constraints = new ReviewConstraints(managers, projects, null);
+        for (long seed = 0; seed < 200; seed++) {
+            assertValidRing(people, constraints, CodeReviewAssigner.assignSinglePool(people, constraints, seed));
+        }
+    }
+
+    @Test
+    void smallRingsAgreeWithBruteForce() {
+        Random random = new Random(SEED + 1);
+        int solvable = 0;
+        for (int instance = 0; instance < 2_000; instance++) {
+            List<Person> people = pool("P", 2 + random.nextInt(5));
+            ReviewConstraints constraints = randomRingConstraints(people, random);
+            boolean expected = ringSolvable(people, constraints);
+            String context = String.format("instance=%d n=%d managers=%s projects=%s pinned=%s",
+                    instance, people.size(), constraints.getManagers(), constraints.getProjects(), constraints.getPinned());
+            try {
+                Map<Person, List<Person>> assignment = CodeReviewAssigner.assignSinglePool(people, constraints);
+                assertTrue(expected, "穷举判定无解，求解器却给出结果: " + context);
+                assertValidRing(people, constraints, assignment);
+                solvable++;
+            } catch (IllegalArgumentException e) {
+                assertFalse(expected, "穷举判定有解，求解器报告 [" + e.getMessage() + "]: " + context);
+            }
+        }
+        assertTrue(solvable > 500, "随机实例中可解比例过低: " + solvable);
+    }
+
+    // ==================== 单向分配 ====================
+
+    @Test
+    void extraLoadMovesToTheOnlyFeasibleReviewer() {
+        // A1 只能审查 B1，因此多出的 1 项必须落在 A0 身上
+        List<Person> poolA = pool("A", 2);
+        List<Person> poolB = pool("B", 3);
+        ReviewConstraints constraints = new ReviewConstraints(
+                Map.of("B0", "A1"),
+                Map.of("项目", List.of("A1", "B0", "B2")),
+                null);
+        for (int round = 0; round < 200; round++) {
+            Map<Person, List<Person>> assignment = CodeReviewAssigner.assignDualPool(poolA, poolB, constraints);
+            assertEquals(List.of("B0", "B2"), sortedIds(assignment.get(poolA.get(0))), "第 " + round + " 轮");
+            assertEquals(List.of("B1"), sortedIds(assignment.get(poolA.get(1))), "第 " + round + " 轮");
+            assertEquals(List.of("A1"), sortedIds(assignment.get(poolB.get(1))), "第 " + round + " 轮");
+            assertValid(poolA, poolB, constraints, assignment);
+        }
+    }
+
+    @Test
+    void smallDualPoolsAgreeWithBruteForce() {
+        Random random = new Random(SEED);
+        int solvable = 0;
+        for (int instance = 0; instance < 3_000; instance++) {
+            List<Person> poolA = pool("A", 1 + random.nextInt(4));
+            List<Person> poolB = pool("B", 1 + random.nextInt(4));
+            List<Person> everyone = new ArrayList<>(poolA);
+            everyone.addAll(poolB);
+            ReviewConstraints constraints = randomConstraints(everyone, random);
+            boolean expected = directionSolvable(poolA, poolB, constraints) && directionSolvable(poolB, poolA, constraints);
+            String context = String.format("instance=%d |A|=%d |B|=%d managers=%s projects=%s pinned=%s",
+                    instance, poolA.size(), poolB.size(), constraints.getManagers(), constraints.getProjects(), constraints.getPinned());
+            try {
+                Map<Person, List<Person>> assignment = CodeReviewAssigner.assignDualPool(poolA, poolB, constraints);
+                assertTrue(expected, "穷举判定无解，求解器却给出结果: " + context);
+                assertValid(poolA, poolB, constraints, assignment);
+                solvable++;
+            } catch (IllegalArgumentException e) {
+                assertFalse(expected, "穷举判定有解，求解器报告 [" + e.getMessage() + "]: " + context);
+            }
+        }
+        assertTrue(solvable > 1_000, "随机实例中可解比例过低: " + solvable);
+    }
+
+    // ==================== 其他分配路径 ====================
+
+    @Test
+    void everySinglePoolPathHonoursConstraints() {
+        Random random = new Random(SEED + 2);
+        int solved = 0;
+        for (int instance = 0; instance < 300; instance++) {
+            List<Person> people = pool("P", 2 + random.nextInt(40));
+            ReviewConstraints constraints = randomRingConstraints(people, random);
+            String context = String.format("instance=%d n=%d", instance, people.size());
+            boolean solvable = solves(() -> CodeReviewAssigner.assignSinglePool(people, constraints));
+            solved += solvable ? 1 : 0;
+
+            assertEquals(solvable, solves(() -> {
+                Map<Person, List<Person>> seeded = CodeReviewAssigner.assignSinglePool(people, constraints, 9L);
+                assertEquals(seeded, CodeReviewAssigner.assignSinglePool(people, constraints, 9L), "固定种子应可复现: " + context);
+                assertValidRing(people, constraints, seeded);
+            }), "固定种子路径: " + context);
+            assertEquals(solvable, solves(() -> {
+                AssignmentView view = CodeReviewAssigner.assignSinglePoolView(people, constraints);
+                assertValidRing(people, constraints, view.toMap());
+                assertViewConsistent(people, view);
+            }), "视图路径: " + context);
+            assertEquals(solvable, solves(() -> assertValidRing(people, constraints,
+                    CodeReviewAssigner.assignSinglePool(OffHeapRoster.of(people), constraints).toMap())), "堆外路径: " + context);
+        }
+        assertTrue(solved > 100, "随机实例中可解比例过低: " + solved);
+    }
+
+    @Test
+    void everyDualPoolPathHonoursConstraints() {
+        Random random = new Random(SEED + 3);
+        int solved = 0;
+        for (int instance = 0; instance < 300; instance++) {
+            List<Person> poolA = pool("A", 1 + random.nextInt(30));
+            List<Person> poolB = pool("B", 1 + random.nextInt(30));
+            List<Person> everyone = new ArrayList<>(poolA);
+            everyone.addAll(poolB);
+            ReviewConstraints constraints = randomConstraints(everyone, random);
+            String context = String.format("instance=%d |A|=%d |B|=%d", instance, poolA.size(), poolB.size());
+            boolean solvable = solves(() -> CodeReviewAssigner.assignDualPool(poolA, poolB, constraints));
+            solved += solvable ? 1 : 0;
+
+            assertEquals(solvable, solves(() -> {
+                Map<Person, List<Person>> seeded = CodeReviewAssigner.assignDualPool(poolA, poolB, constraints, 9L);
+                assertEquals(seeded, CodeReviewAssigner.assignDualPool(poolA, poolB, constraints, 9L), "固定种子应可复现: " + context);
+                assertValid(poolA, poolB, constraints, seeded);
+            }), "固定种子路径: " + context);
+            assertEquals(solvable, solves(() -> {
+                AssignmentView view = CodeReviewAssigner.assignDualPoolView(poolA, poolB, constraints);
+                assertValid(poolA, poolB, constraints, view.toMap());
+                assertViewConsistent(everyone, view);
+            }), "视图路径: " + context);
+            assertEquals(solvable, solves(() -> assertValid(poolA, poolB, constraints, CodeReviewAssigner.assignDualPool(
+                    OffHeapRoster.of(poolA), OffHeapRoster.of(poolB), constraints).toMap())), "堆外路径: " + context);
+            assertEquals(solvable, solves(() -> assertValid(poolA, poolB, constraints,
+                    CodeReviewAssigner.assignDualPoolFair(poolA, poolB, new ReviewLoadLedger(), constraints))), "公平路径: " + context);
+        }
+        assertTrue(solved > 100, "随机实例中可解比例过低: " + solved);
+    }
+
+    /**
+     * 视图按工号反查与物化结果一致
+     */
+    private static void assertViewConsistent(List<Person> everyone, AssignmentView view) {
+        for (Person reviewer : everyone) {
+            for (Person reviewee : view.revieweesOf(reviewer.getEmployeeId())) {
+                assertEquals(reviewer, view.reviewerOf(reviewee.getEmployeeId()), reviewee.getEmployeeId() + " 的审查人");
+            }
+        }
+    }
+
+    /**
+     * 约束无法满足（IllegalArgumentException）时返回 false，其余断言失败照常抛出
+     */
+    private static boolean solves(Runnable assignment) {
+        try {
+            assignment.run();
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // ==================== 校验与穷举 ====================
+
+    /**
+     * 单池结果合法：每人恰好审查 1 人、构成覆盖全员的单一闭环、不违反排除规则、固定配对生效
+     */
+    private static void assertValidRing(List<Person> people, ReviewConstraints constraints,
+                                        Map<Person, List<Person>> assignment) {
+        assertEquals(people.size(), assignment.size());
+        Map<String, String> next = new HashMap<>();
+        assignment.forEach((reviewer, reviewees) -> {
+            assertEquals(1, reviewees.size());
+            String reviewee = reviewees.get(0).getEmployeeId();
+            assertFalse(forbids(constraints, reviewer.getEmployeeId(), reviewee),
+                    reviewer.getEmployeeId() + " 不得审查 " + reviewee);
+            next.put(reviewer.getEmployeeId(), reviewee);
+        });
+        String start = people.get(0).getEmployeeId();
+        String p = start;
+        for (int i = 0; i < people.size(); i++) {
+            p = next.get(p);
+            assertNotNull(p, "审查链断开");
+            assertTrue(i == people.size() - 1 || !p.equals(start), "审查环未覆盖全员");
+        }
+        assertEquals(start, p, "审查链未闭合");
+        for (ReviewConstraints.PinnedPair pin : constraints.getPinned()) {
+            assertEquals(pin.getReviewee(), next.get(pin.getReviewer()), "固定配对 " + pin);
+        }
+    }
+
+    /**
+     * 穷举审查环：固定首位，枚举其余人员的排列
+     */
+    private static boolean ringSolvable(List<Person> people, ReviewConstraints constraints) {
+        int[] order = new int[people.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        return permute(people, constraints, order, 1);
+    }
+
+    private static boolean permute(List<Person> people, ReviewConstraints constraints, int[] order, int depth) {
+        if (depth == order.length) {
+            Map<String, String> next = new HashMap<>();
+            for (int i = 0; i < order.length; i++) {
+                String reviewer = people.get(order[i]).getEmployeeId();
+                String reviewee = people.get(order[(i + 1) % order.length]).getEmployeeId();
+                if (forbids(constraints, reviewer, reviewee)) return false;
+                next.put(reviewer, reviewee);
+            }
+            return constraints.getPinned().stream().allMatch(pin -> pin.getReviewee().equals(next.get(pin.getReviewer())));
+        }
+        for (int i = depth; i < order.length; i++) {
+            swap(order, depth, i);
+            if (permute(people, constraints, order, depth + 1)) {
+                swap(order, depth, i);
+                return true;
+            }
+            swap(order, depth, i);
+        }
+        return false;
+    }
+
+    private static void swap(int[] values, int i, int j) {
+        int tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+    }
+
+    /**
+     * 单池随机约束：约三成人员有上级，0~2 个项目，0~2 个固定配对（被审查人互不相同）
+     */
+    private static ReviewConstraints randomRingConstraints(List<Person> people, Random random) {
+        ReviewConstraints base = randomConstraints(people, random);
+        List<ReviewConstraints.PinnedPair> pinned = new ArrayList<>();
+        Set<String> pinnedReviewees = new HashSet<>();
+        for (int i = random.nextInt(3); i > 0; i--) {
+            String reviewer = people.get(random.nextInt(people.size())).getEmployeeId();
+            String reviewee = people.get(random.nextInt(people.size())).getEmployeeId();
+            if (!reviewer.equals(reviewee) && !forbids(base, reviewer, reviewee) && pinnedReviewees.add(reviewee)) {
+                pinned.add(new ReviewConstraints.PinnedPair(reviewer, reviewee));
+            }
+        }
+        return new ReviewConstraints(base.getManagers(), base.getProjects(), pinned);
+    }
+
+    /**
+     * 双池结果合法：双向全覆盖、负载在 [⌊n/r⌋, ⌈n/r⌉]、不违反排除规则、固定配对生效
+     */
+    private static void assertValid(List<Person> poolA, List<Person> poolB, ReviewConstraints constraints,
+                                    Map<Person, List<Person>> assignment) {
+        assertDirectionValid(poolA, poolB, constraints, assignment);
+        assertDirectionValid(poolB, poolA, constraints, assignment);
+    }
+
+    private static void assertDirectionValid(List<Person> reviewers, List<Person> reviewees,
+                                             ReviewConstraints constraints, Map<Person, List<Person>> assignment) {
+        int floor = reviewees.size() / reviewers.size();
+        int ceil = (reviewees.size() + reviewers.size() - 1) / reviewers.size();
+        Map<String, String> reviewerOf = new HashMap<>();
+        for (Person reviewer : reviewers) {
+            List<Person> targets = assignment.getOrDefault(reviewer, List.of());
+            assertTrue(targets.size() >= floor && targets.size() <= ceil,
+                    reviewer.getEmployeeId() + " 负载 " + targets.size() + " 超出 [" + floor + ", " + ceil + "]");
+            for (Person reviewee : targets) {
+                assertFalse(forbids(constraints, reviewer.getEmployeeId(), reviewee.getEmployeeId()),
+                        reviewer.getEmployeeId() + " 不得审查 " + reviewee.getEmployeeId());
+                assertNull(reviewerOf.put(reviewee.getEmployeeId(), reviewer.getEmployeeId()), "重复覆盖");
+            }
+        }
+        for (Person reviewee : reviewees) {
+            assertNotNull(reviewerOf.get(reviewee.getEmployeeId()), reviewee.getEmployeeId() + " 未被覆盖");
+        }
+        for (ReviewConstraints.PinnedPair pin : constraints.getPinned()) {
+            if (reviewerOf.containsKey(pin.getReviewee())) {
+                assertEquals(pin.getReviewer(), reviewerOf.get(pin.getReviewee()), "固定配对 " + pin);
+            }
+        }
+    }
+
+    /**
+     * 穷举单向分配：每位被审查人任选审查人，检查负载上下限、排除规则与固定配对
+     */
+    private static boolean directionSolvable(List<Person> reviewers, List<Person> reviewees, ReviewConstraints constraints) {
+        int n = reviewees.size();
+        int r = reviewers.size();
+        int floor = n / r;
+        int ceil = (n + r - 1) / r;
+        int[] choice = new int[n];
+        while (true) {
+            int[] load = new int[r];
+            boolean ok = true;
+            for (int k = 0; k < n && ok; k++) {
+                String reviewer = reviewers.get(choice[k]).getEmployeeId();
+                String reviewee = reviewees.get(k).getEmployeeId();
+                ok = !forbids(constraints, reviewer, reviewee) && pinAllows(constraints, reviewer, reviewee);
+                load[choice[k]]++;
+            }
+            for (int i = 0; i < r && ok; i++) {
+                ok = load[i] >= floor && load[i] <= ceil;
+            }
+            if (ok) return true;
+            int k = 0;
+            while (k < n && ++choice[k] == r) {
+                choice[k++] = 0;
+            }
+            if (k == n) return false;
+        }
+    }
+
+    private static boolean pinAllows(ReviewConstraints constraints, String reviewer, String reviewee) {
+        for (ReviewConstraints.PinnedPair pin : constraints.getPinned()) {
+            if (pin.getReviewee().equals(reviewee) && !pin.getReviewer().equals(reviewer)) return false;
+        }
+        return true;
+    }
+
+    private static boolean forbids(ReviewConstraints constraints, String reviewer, String reviewee) {
+        if (reviewer.equals(reviewee) || reviewee.equals(constraints.getManagers().get(reviewer))) {
+            return true;
+        }
+        for (List<String> members : constraints.getProjects().values()) {
+            if (members.contains(reviewer) && members.contains(reviewee)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 随机约束：约三成人员有上级，0~2 个项目，至多 1 个跨池固定配对（被审查人唯一）
+     */
+    private static ReviewConstraints randomConstraints(List<Person> everyone, Random random) {
+        Map<String, String> managers = new HashMap<>();
+        for (Person person : everyone) {
+            Person manager = everyone.get(random.nextInt(everyone.size()));
+            if (random.nextInt(10) < 3 && manager != person) {
+                managers.put(person.getEmployeeId(), manager.getEmployeeId());
+            }
+        }
+        Map<String, List<String>> projects = new HashMap<>();
+        for (int g = random.nextInt(3); g > 0; g--) {
+            List<String> members = everyone.stream().map(Person::getEmployeeId)
+                    .filter(id -> random.nextInt(3) == 0)
+                    .collect(Collectors.toList());
+            projects.put("项目" + g, members);
+        }
+        List<ReviewConstraints.PinnedPair> pinned = new ArrayList<>();
+        if (random.nextInt(4) == 0) {
+            Person reviewer = everyone.get(random.nextInt(everyone.size()));
+            Person reviewee = everyone.get(random.nextInt(everyone.size()));
+            if (reviewer.getEmployeeId().charAt(0) != reviewee.getEmployeeId().charAt(0)
+                    && !forbids(new ReviewConstraints(managers, projects, null), reviewer.getEmployeeId(), reviewee.getEmployeeId())) {
+                pinned.add(new ReviewConstraints.PinnedPair(reviewer.getEmployeeId(), reviewee.getEmployeeId()));
+            }
+        }
+        return new ReviewConstraints(managers, projects, pinned);
+    }
+
+    private static List<String> sortedIds(List<Person> people) {
+        return people == null ? List.of() : people.stream().map(Person::getEmployeeId).sorted().collect(Collectors.toList());
+    }
+
+    private static List<Person> pool(String prefix, int size) {
+        List<Person> people = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            people.add(new Person(prefix + "姓名" + i, prefix + i));
+        }
+        return people;
+    }
+}
@@ -0,0 +1,88 @@
+package cn.silence.icu.novautil.review.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * OffHeapRoster 预分配上限、分块扩容与跨名册工号定位校验
+ *
+ * @author rainofsilence
+ * @version 1.0.0
+ * @since 2026/02/14 15:30 周六
+ */
+class OffHeapRosterTest {
+
+    @Test
+    void rejectsExpectedSizeBeyondLimit() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new OffHeapRoster(Integer.MAX_VALUE));
+        assertTrue(e.getMessage().contains("超过名册上限"), e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapRoster(OffHeapRoster.MAX_SIZE + 1));
+        assertEquals(0, new OffHeapRoster(-1).size(), "负数预估按最小容量处理");
+        assertTrue(new OffHeapRoster(OffHeapRoster.MAX_SIZE).allocatedOffHeapBytes() <= 1 << 24,
+                "预估人数再大，首块也不超过 16MB");
+    }
+
+    @Test
+    void keepsRecordsIntactAcrossChunkBoundaries() {
+        // 首块 1KB：第一人恰好写满首块（终点地址落在块尾），第二人开新块
+        OffHeapRoster roster = new OffHeapRoster(1);
+        String first = "a".repeat(1024 - 4);
+        roster.append(first, "ID-0");
+        roster.append("乙", "ID-1");
+        assertEquals(1024 + 2048, roster.allocatedOffHeapBytes(), "写满后新开一块，容量倍增");
+        assertEquals(first, roster.nameAt(0));
+        assertEquals("ID-0", roster.employeeIdAt(0));
+        assertEquals(4, roster.employeeIdBytes(0).remaining());
+        assertEquals(0, roster.indexOf("ID-0"));
+        assertTrue(roster.compareEmployeeId(0, 1) < 0);
+
+        OffHeapRoster other = new OffHeapRoster();
+        other.append("丙", "ID-0");
+        assertEquals(0, other.indexOf(roster, 0));
+        assertEquals(0, roster.indexOf(other, 0));
+    }
+
+    @Test
+    void growsInChunksWithoutReallocating() {
+        OffHeapRoster roster = new OffHeapRoster(16);
+        String padding = "名".repeat(20_000); // 60KB / 人，合计约 60MB，跨越多个 16MB 块
+        int n = 1000;
+        for (int i = 0; i < n; i++) {
+            roster.append(padding + i, "工号" + i);
+        }
+        // 只追加新块、不搬迁旧块：已申请容量不超过已写入字节加一个满块
+        long used = roster.offHeapBytes();
+        assertTrue(roster.allocatedOffHeapBytes() <= used + (1 << 24),
+                roster.allocatedOffHeapBytes() + " vs " + used);
+        for (int i = 0; i < n; i += 37) {
+            assertEquals(padding + i, roster.nameAt(i));
+            assertEquals(i, roster.indexOf("工号" + i));
+        }
+        assertEquals(n - 1, roster.indexOf(roster, n - 1));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> roster.append("x".repeat((1 << 24) + 1), "超长"), "单人记录超过一块上限");
+        assertEquals(n, roster.size());
+    }
+
+    @Test
+    void locatesIdsAcrossRosters() {
+        OffHeapRoster poolA = new OffHeapRoster(2);
+        OffHeapRoster poolB = new OffHeapRoster();
+        for (int i = 0; i < 100; i++) {
+            poolA.append("甲" + i, "工号" + i);
+            poolB.append("乙" + i, "工号" + (99 - i));
+        }
+        poolB.append("丙", "工号100");
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(99 - i, poolB.indexOf(poolA, i));
+            assertEquals(poolA.indexOf(poolA.employeeIdAt(i)), poolA.indexOf(poolA, i));
+        }
+        assertEquals(-1, poolA.indexOf(poolB, 100));
+        assertThrows(IndexOutOfBoundsException.class, () -> poolA.indexOf(poolB, 101));
+        assertThrows(IllegalArgumentException.class, () -> poolA.append("重复", " 工号7 "));
+    }
+}
@@ -0,0 +1,160 @@
+package cn.silence.icu.novautil.review.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AssignmentServer 接口、缓存与并发校验（随机端口，仅回环地址）
+ *
+ * @author rainofsilence
+ * @version 1.0.0
+ * @since 2026/02/12 11:40 周四
+ */
+class AssignmentServerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void servesAllFormats() throws Exception {
+        AssignmentServer server = new AssignmentServer("config/single_pool.json", "config/dual_pool.json");
+        server.start(0);
+        try {
+            HttpResponse<String> json = get(server, "/assign?mode=dual&seed=7");
+            assertEquals(200, json.statusCode());
+            assertTrue(json.body().startsWith("{\"mode\":\"dual\""), json.body());
+            assertEquals("7", json.headers().firstValue("X-Assignment-Seed").orElse(null));
+
+            HttpResponse<String> text = get(server, "/assign/text?mode=single&seed=7");
+            assertEquals(200, text.statusCode());
+            assertTrue(text.body().contains("审查人"), text.body());
+
+            HttpResponse<String> csv = get(server, "/assign/csv?seed=7");
+            assertEquals(200, csv.statusCode());
+            assertTrue(csv.body().contains("审查人姓名,审查人工号"), csv.body());
+
+            HttpResponse<String> markdown = get(server, "/assign/markdown?mode=single");
+            assertEquals(200, markdown.statusCode());
+            assertTrue(markdown.body().startsWith("# 📋 代码审查分配清单"), markdown.body());
+
+            assertEquals(400, get(server, "/assign?mode=triple").statusCode());
+            assertEquals(400, get(server, "/assign?seed=abc").statusCode());
+            assertEquals(404, get(server, "/unknown").statusCode());
+            assertEquals(405, get(server, "/reload").statusCode());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void seededResultsAreCachedPerRosterVersion() throws Exception {
+        AssignmentServer server = new AssignmentServer("config/single_pool.json", "config/dual_pool.json", 2);
+        server.start(0);
+        try {
+            String first = get(server, "/assign?mode=single&seed=42").body();
+            assertEquals(first, get(server, "/assign?mode=single&seed=42").body(), "相同种子应得到相同结果");
+            assertCacheStats(server, 1, 1, "第二次请求应命中缓存，分配只执行一次");
+            get(server, "/assign?mode=dual&seed=42");
+            get(server, "/assign?mode=dual&seed=43");
+            assertEquals(2, server.cachedResults(), "缓存应受容量限制");
+            get(server, "/assign?mode=dual");
+            assertEquals(2, server.cachedResults(), "未指定种子的结果不应进入缓存");
+            assertCacheStats(server, 1, 3, "未指定种子的请求不应查询缓存");
+            get(server, "/assign?mode=dual&seed=43");
+            assertCacheStats(server, 2, 3, "最近使用的结果应命中");
+            get(server, "/assign?mode=single&seed=42");
+            assertCacheStats(server, 2, 4, "超出容量的最久未用结果应已淘汰");
+
+            HttpResponse<String> reload = client.send(HttpRequest.newBuilder(uri(server, "/reload"))
+                    .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, reload.statusCode());
+            HttpResponse<String> after = get(server, "/assign?mode=single&seed=42");
+            assertEquals("2", after.headers().firstValue("X-Roster-Version").orElse(null));
+            // 同一名册内容 + 同一种子：重新加载后结果仍可复现（仅版本号变化）
+            assertEquals(first.replace("\"rosterVersion\":1", "\"rosterVersion\":2"), after.body());
+            assertCacheStats(server, 2, 5, "重新加载后旧版本结果不应命中");
+            get(server, "/assign?mode=single&seed=42");
+            assertCacheStats(server, 3, 5, "新版本结果应进入缓存");
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void appliesConstraintsFromConfig() throws Exception {
+        AssignmentServer server = new AssignmentServer("config/single_pool.json", "config/dual_pool.json");
+        server.start(0);
+        try {
+            ObjectMapper mapper = new ObjectMapper();
+            for (int seed = 0; seed < 50; seed++) {
+                Map<String, List<String>> single = reviewees(mapper.readTree(get(server, "/assign?mode=single&seed=" + seed).body()));
+                assertEquals(List.of("DEV004"), single.get("DEV003"), "固定配对 DEV003 → DEV004，seed=" + seed);
+                assertFalse(single.get("DEV002").contains("DEV001"), "DEV002 不得审查直属上级 DEV001，seed=" + seed);
+
+                Map<String, List<String>> dual = reviewees(mapper.readTree(get(server, "/assign?mode=dual&seed=" + seed).body()));
+                assertTrue(dual.get("BE003").contains("FE002"), "固定配对 BE003 → FE002，seed=" + seed);
+                assertFalse(dual.getOrDefault("FE002", List.of()).contains("BE002"), "FE002 不得审查直属上级 BE002，seed=" + seed);
+                assertFalse(dual.getOrDefault("FE001", List.of()).contains("BE001"), "同项目 FE001 不得审查 BE001，seed=" + seed);
+                assertFalse(dual.getOrDefault("BE001", List.of()).contains("FE001"), "同项目 BE001 不得审查 FE001，seed=" + seed);
+            }
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void handlesConcurrentRequests() throws Exception {
+        AssignmentServer server = new AssignmentServer("config/single_pool.json", "config/dual_pool.json");
+        server.start(0);
+        try {
+            String[] paths = {"/assign", "/assign/text", "/assign/csv", "/assign/markdown"};
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < 1_000; i++) {
+                String path = paths[i % paths.length] + "?mode=" + (i % 2 == 0 ? "single" : "dual") + "&seed=" + (i % 50);
+                responses.add(client.sendAsync(HttpRequest.newBuilder(uri(server, path)).build(),
+                        HttpResponse.BodyHandlers.ofString()));
+            }
+            for (CompletableFuture<HttpResponse<String>> response : responses) {
+                assertEquals(200, response.get().statusCode());
+            }
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static Map<String, List<String>> reviewees(JsonNode json) {
+        Map<String, List<String>> reviewees = new HashMap<>();
+        for (JsonNode row : json.get("assignments")) {
+            List<String> ids = new ArrayList<>();
+            row.get("reviewees").forEach(reviewee -> ids.add(reviewee.get("employeeId").asText()));
+            reviewees.put(row.get("reviewer").get("employeeId").asText(), ids);
+        }
+        return reviewees;
+    }
+
+    private static void assertCacheStats(AssignmentServer server, long hits, long misses, String message) {
+        assertEquals(hits, server.cacheHits(), message + "（命中次数）");
+        assertEquals(misses, server.cacheMisses(), message + "（未命中次数）");
+    }
+
+    private HttpResponse<String> get(AssignmentServer server, String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(uri(server, path)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static URI uri(AssignmentServer server, String path) {
+        return URI.create("http://127.0.0.1:" + server.getPort() + path);
+    }
+}